@@ -39,8 +39,36 @@ public @interface AlfrescoTransaction {
 	/**
 	 * The transaction propagation type.
 	 * <p>
+	 * {@link Propagation#SUPPORTS}, {@link Propagation#MANDATORY} and
+	 * {@link Propagation#NEVER} do not create any transaction,
+	 * {@link Propagation#REQUIRES_NEW} always creates a new one and any other type
+	 * is handled as {@link Propagation#REQUIRED}.
+	 * <p>
 	 * Defaults to {@link Propagation#REQUIRED}.
 	 */
 	Propagation propagation() default Propagation.REQUIRED;
 
+	/**
+	 * The maximum number of retries.
+	 * <p>
+	 * Defaults to <code>-1</code>: the retry attributes not set keep the global
+	 * retry settings of the Alfresco transaction service.
+	 */
+	int maxRetries() default -1;
+
+	/**
+	 * The minimum wait time between retries, in milliseconds.
+	 */
+	int minRetryWaitMs() default -1;
+
+	/**
+	 * The maximum wait time between retries, in milliseconds.
+	 */
+	int maxRetryWaitMs() default -1;
+
+	/**
+	 * The wait time increment between retries, in milliseconds.
+	 */
+	int retryWaitIncrementMs() default -1;
+
 }
@@ -40,9 +40,27 @@ public @interface EnableAlfrescoMvcAop {
 
 	AdviceMode mode() default AdviceMode.PROXY;
 
+	/**
+	 * package names or Ant-style package patterns, e.g.
+	 * <code>com.acme.service.**</code> for a package and its subpackages
+	 */
 	String[] basePackages() default {};
 
 	Class<?>[] basePackageClasses() default {};
 
 	boolean defaultPropertiesSupport() default true;
+
+	/**
+	 * apply the authentication, run as and transaction advices through a single
+	 * fused interceptor. The configurations with the same options share one proxy
+	 * creator, a package should not be enabled with different options since each
+	 * of their proxy creators would proxy it.
+	 */
+	boolean fusedInterceptors() default false;
+
+	/**
+	 * proxy only the classes having at least one Alfresco @MVC annotation, the
+	 * methods without annotations then invoke the target directly
+	 */
+	boolean annotatedOnly() default false;
 }
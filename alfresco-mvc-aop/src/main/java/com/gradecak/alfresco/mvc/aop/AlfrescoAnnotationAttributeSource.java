@@ -0,0 +1,148 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.MethodClassKey;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.gradecak.alfresco.mvc.annotation.AlfrescoAuthentication;
+import com.gradecak.alfresco.mvc.annotation.AlfrescoRunAs;
+import com.gradecak.alfresco.mvc.annotation.AlfrescoTransaction;
+
+/**
+ * resolves the Alfresco @MVC annotations of an invoked method once per
+ * (method, target class) pair, methods without any annotation are cached as
+ * well. An annotation declared on the method wins over the one declared on the
+ * class, the class level annotations apply to the public methods only.
+ * <p>
+ * The attributes of all the methods of a class are precomputed by
+ * {@link #hasAttributes(Class)}, called when the {@link PackageAutoProxyCreator}
+ * creates the proxy.
+ * <p>
+ * A single instance is shared by the advices declared in
+ * <code>alfresco-mvc-aop.xml</code> so that an advised invocation costs one map
+ * lookup instead of the reflective annotation lookup.
+ */
+public class AlfrescoAnnotationAttributeSource {
+
+	private final Map<MethodClassKey, AlfrescoAnnotationAttributes> attributesCache = new ConcurrentHashMap<>(1024);
+	private final Map<Class<?>, Boolean> classCache = new ConcurrentHashMap<>(256);
+
+	/**
+	 * precomputes the attributes of every method of the class, including the
+	 * methods of its interfaces
+	 * 
+	 * @return true if at least one method of the class has an Alfresco @MVC
+	 *         annotation
+	 */
+	public boolean hasAttributes(final Class<?> targetClass) {
+		Boolean annotated = classCache.get(targetClass);
+		if (annotated == null) {
+			annotated = computeAttributes(targetClass);
+			classCache.put(targetClass, annotated);
+		}
+		return annotated;
+	}
+
+	private boolean computeAttributes(final Class<?> targetClass) {
+		boolean annotated = false;
+		for (Method method : ReflectionUtils.getAllDeclaredMethods(targetClass)) {
+			annotated |= !getAttributes(method, targetClass).isEmpty();
+		}
+		for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+			for (Method method : ifc.getMethods()) {
+				annotated |= !getAttributes(method, targetClass).isEmpty();
+			}
+		}
+		return annotated;
+	}
+
+	/**
+	 * @param method      the invoked method, possibly an interface method
+	 * @param targetClass the target class or <code>null</code>
+	 * @return the resolved attributes, never <code>null</code>
+	 */
+	public AlfrescoAnnotationAttributes getAttributes(final Method method, final Class<?> targetClass) {
+		if (method.getDeclaringClass() == Object.class) {
+			return AlfrescoAnnotationAttributes.NONE;
+		}
+
+		MethodClassKey cacheKey = new MethodClassKey(method, targetClass);
+		AlfrescoAnnotationAttributes attributes = attributesCache.get(cacheKey);
+		if (attributes == null) {
+			attributes = computeAttributes(method, targetClass);
+			attributesCache.put(cacheKey, attributes);
+		}
+		return attributes;
+	}
+
+	protected AlfrescoAnnotationAttributes computeAttributes(final Method method, final Class<?> targetClass) {
+		Method specificMethod = ClassUtils.getMostSpecificMethod(method, targetClass);
+		// If we are dealing with method with generic parameters, find the original
+		// method.
+		specificMethod = BridgeMethodResolver.findBridgedMethod(specificMethod);
+
+		Class<?> userClass = targetClass != null ? ClassUtils.getUserClass(targetClass)
+				: specificMethod.getDeclaringClass();
+
+		AlfrescoAuthentication authentication = findAnnotation(specificMethod, userClass, AlfrescoAuthentication.class);
+		AlfrescoRunAs runAs = findAnnotation(specificMethod, userClass, AlfrescoRunAs.class);
+		AlfrescoTransaction transaction = findAnnotation(specificMethod, userClass, AlfrescoTransaction.class);
+
+		if (authentication == null && runAs == null && transaction == null) {
+			return AlfrescoAnnotationAttributes.NONE;
+		}
+		return new AlfrescoAnnotationAttributes(authentication, runAs, transaction);
+	}
+
+	/**
+	 * @return the annotation of the method or, for a public method, the one of the
+	 *         class
+	 */
+	protected <A extends Annotation> A findAnnotation(final Method specificMethod, final Class<?> userClass,
+			final Class<A> annotationType) {
+		A ann = parseAnnotation(specificMethod, annotationType);
+		if (ann == null && Modifier.isPublic(specificMethod.getModifiers())) {
+			ann = parseAnnotation(userClass, annotationType);
+		}
+		return ann;
+	}
+
+	/**
+	 * @return the annotation declared on the element or on one of its annotations
+	 */
+	protected <A extends Annotation> A parseAnnotation(final AnnotatedElement ae, final Class<A> annotationType) {
+		A ann = ae.getAnnotation(annotationType);
+		if (ann == null) {
+			for (Annotation metaAnn : ae.getAnnotations()) {
+				ann = metaAnn.annotationType().getAnnotation(annotationType);
+				if (ann != null) {
+					break;
+				}
+			}
+		}
+		return ann;
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import java.lang.annotation.Annotation;
+
+import com.gradecak.alfresco.mvc.annotation.AlfrescoAuthentication;
+import com.gradecak.alfresco.mvc.annotation.AlfrescoRunAs;
+import com.gradecak.alfresco.mvc.annotation.AlfrescoTransaction;
+
+/**
+ * the Alfresco @MVC annotations resolved for a method, as cached by the
+ * {@link AlfrescoAnnotationAttributeSource}
+ */
+public final class AlfrescoAnnotationAttributes {
+
+	/**
+	 * the attributes of a method without any Alfresco @MVC annotation
+	 */
+	public static final AlfrescoAnnotationAttributes NONE = new AlfrescoAnnotationAttributes(null, null, null);
+
+	private final AlfrescoAuthentication authentication;
+	private final AlfrescoRunAs runAs;
+	private final AlfrescoTransaction transaction;
+
+	AlfrescoAnnotationAttributes(final AlfrescoAuthentication authentication, final AlfrescoRunAs runAs,
+			final AlfrescoTransaction transaction) {
+		this.authentication = authentication;
+		this.runAs = runAs;
+		this.transaction = transaction;
+	}
+
+	public AlfrescoAuthentication getAuthentication() {
+		return authentication;
+	}
+
+	public AlfrescoRunAs getRunAs() {
+		return runAs;
+	}
+
+	public AlfrescoTransaction getTransaction() {
+		return transaction;
+	}
+
+	/**
+	 * @return true if the annotation of the given type is present
+	 */
+	public boolean contains(final Class<? extends Annotation> annotationType) {
+		if (AlfrescoAuthentication.class == annotationType) {
+			return authentication != null;
+		} else if (AlfrescoRunAs.class == annotationType) {
+			return runAs != null;
+		} else if (AlfrescoTransaction.class == annotationType) {
+			return transaction != null;
+		}
+		return false;
+	}
+
+	public boolean isEmpty() {
+		return authentication == null && runAs == null && transaction == null;
+	}
+}
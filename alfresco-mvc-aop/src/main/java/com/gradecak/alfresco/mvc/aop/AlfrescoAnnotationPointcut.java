@@ -0,0 +1,55 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+
+/**
+ * matches the methods carrying the given Alfresco @MVC annotation, either on
+ * the method or on its class, or any of them if no annotation type is given.
+ * <p>
+ * The matching relies on the attributes precomputed per class by the
+ * {@link AlfrescoAnnotationAttributeSource}.
+ */
+public class AlfrescoAnnotationPointcut extends StaticMethodMatcherPointcut {
+
+	private final AlfrescoAnnotationAttributeSource attributeSource;
+	private final Class<? extends Annotation> annotationType;
+
+	public AlfrescoAnnotationPointcut(final AlfrescoAnnotationAttributeSource attributeSource) {
+		this(attributeSource, null);
+	}
+
+	public AlfrescoAnnotationPointcut(final AlfrescoAnnotationAttributeSource attributeSource,
+			final Class<? extends Annotation> annotationType) {
+		this.attributeSource = attributeSource;
+		this.annotationType = annotationType;
+		setClassFilter(new ClassFilter() {
+			public boolean matches(final Class<?> clazz) {
+				return attributeSource.hasAttributes(clazz);
+			}
+		});
+	}
+
+	public boolean matches(final Method method, final Class<?> targetClass) {
+		AlfrescoAnnotationAttributes attributes = attributeSource.getAttributes(method, targetClass);
+		return annotationType != null ? attributes.contains(annotationType) : !attributes.isEmpty();
+	}
+}
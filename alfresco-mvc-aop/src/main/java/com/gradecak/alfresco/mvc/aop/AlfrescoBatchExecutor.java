@@ -0,0 +1,231 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.alfresco.repo.transaction.RetryingTransactionHelper;
+import org.alfresco.repo.transaction.RetryingTransactionHelper.RetryingTransactionCallback;
+import org.alfresco.service.ServiceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+/**
+ * processes a large input in fixed-size chunks, each chunk in its own retrying
+ * read-write transaction. The chunks are processed concurrently by a bounded
+ * number of workers running on the given executor, as the run as user of the
+ * caller (e.g. the one of an {@code @AlfrescoRunAs} method).
+ * <p>
+ * The input is consumed lazily. A chunk failing after the retries of the
+ * retrying transaction helper is rolled back and retried on its own up to
+ * chunkRetries times, it is then reported in the {@link AlfrescoBatchResult}
+ * while the other chunks go on. A failure reading the input or notifying the
+ * progress listener stops the worker, the input is not read any further and the
+ * failure is reported in the {@link AlfrescoBatchResult} as well.
+ * <p>
+ * Registered as "mvc.aop.alfrescoBatchExecutor" on top of the
+ * "mvc.aop.alfrescoAsyncExecutor".
+ */
+public class AlfrescoBatchExecutor {
+
+	public static final String BEAN_NAME = "mvc.aop.alfrescoBatchExecutor";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AlfrescoBatchExecutor.class);
+
+	/**
+	 * processes a single item, within the transaction of its chunk
+	 */
+	@FunctionalInterface
+	public interface BatchWorker<T> {
+		void process(T item) throws Throwable;
+	}
+
+	/**
+	 * notified after each chunk, from the worker thread
+	 */
+	@FunctionalInterface
+	public interface ProgressListener {
+		void onProgress(AlfrescoBatchResult progress);
+	}
+
+	private final ServiceRegistry serviceRegistry;
+	private final Executor executor;
+
+	private int batchSize = 100;
+	private int threads = 4;
+	private int chunkRetries = 1;
+
+	public AlfrescoBatchExecutor(final ServiceRegistry serviceRegistry, final Executor executor) {
+		this.serviceRegistry = serviceRegistry;
+		this.executor = executor;
+	}
+
+	public <T> AlfrescoBatchResult execute(final Iterable<T> items, final BatchWorker<T> worker)
+			throws InterruptedException {
+		return execute(items, batchSize, threads, worker, null);
+	}
+
+	/**
+	 * processes the items and waits for all the chunks to complete
+	 */
+	public <T> AlfrescoBatchResult execute(final Iterable<T> items, final int batchSize, final int threads,
+			final BatchWorker<T> worker, final ProgressListener listener) throws InterruptedException {
+		Assert.notNull(items, "the items must not be null");
+		Assert.notNull(worker, "the worker must not be null");
+		Assert.isTrue(batchSize > 0, "the batch size must be greater than 0");
+		Assert.isTrue(threads > 0, "the number of threads must be greater than 0");
+
+		final String runAsUser = AuthenticationUtil.getRunAsUser();
+		final ChunkIterator<T> chunks = new ChunkIterator<>(items.iterator(), batchSize);
+		final AlfrescoBatchResult result = new AlfrescoBatchResult();
+		final CountDownLatch latch = new CountDownLatch(threads);
+
+		for (int i = 0; i < threads; i++) {
+			try {
+				executor.execute(() -> {
+					try {
+						Chunk<T> chunk;
+						while ((chunk = chunks.next()) != null) {
+							processChunk(chunk, worker, runAsUser, result);
+							if (listener != null) {
+								listener.onProgress(result);
+							}
+						}
+					} catch (Throwable e) {
+						LOGGER.warn("Batch worker stopped", e);
+						result.workerFailed(e);
+					} finally {
+						latch.countDown();
+					}
+				});
+			} catch (RuntimeException e) {
+				// the workers already submitted complete the processing
+				for (int j = i; j < threads; j++) {
+					latch.countDown();
+				}
+				if (i == 0) {
+					throw e;
+				}
+				LOGGER.warn("Only " + i + " batch workers out of " + threads + " could be started", e);
+				break;
+			}
+		}
+
+		latch.await();
+		LOGGER.debug("Batch completed, {}", result);
+		return result;
+	}
+
+	private <T> void processChunk(final Chunk<T> chunk, final BatchWorker<T> worker, final String runAsUser,
+			final AlfrescoBatchResult result) {
+		RetryingTransactionCallback<Object> work = () -> {
+			for (T item : chunk.items) {
+				worker.process(item);
+			}
+			return null;
+		};
+
+		for (int attempt = 0;; attempt++) {
+			try {
+				RetryingTransactionHelper helper = serviceRegistry.getRetryingTransactionHelper();
+				if (runAsUser != null) {
+					AuthenticationUtil.runAs(() -> helper.doInTransaction(work, false, true), runAsUser);
+				} else {
+					helper.doInTransaction(work, false, true);
+				}
+				result.chunkProcessed(chunk.items.size());
+				return;
+			} catch (Throwable e) {
+				if (attempt >= chunkRetries) {
+					LOGGER.warn("Batch chunk " + chunk.index + " failed after " + attempt + " retries", e);
+					result.chunkFailed(new AlfrescoBatchResult.ChunkFailure(chunk.index, chunk.items, e));
+					return;
+				}
+				LOGGER.debug("Retrying batch chunk {}", chunk.index, e);
+				result.chunkRetried();
+			}
+		}
+	}
+
+	public void setBatchSize(final int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public void setThreads(final int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * @param chunkRetries the number of times a failed chunk is retried in a new
+	 *                     transaction
+	 */
+	public void setChunkRetries(final int chunkRetries) {
+		this.chunkRetries = chunkRetries;
+	}
+
+	private static class Chunk<T> {
+		private final int index;
+		private final List<T> items;
+
+		Chunk(final int index, final List<T> items) {
+			this.index = index;
+			this.items = items;
+		}
+	}
+
+	/**
+	 * hands the chunks out to the workers, reading the input only when needed
+	 */
+	private static class ChunkIterator<T> {
+		private final Iterator<T> iterator;
+		private final int batchSize;
+		private int index = 0;
+		private boolean failed;
+
+		ChunkIterator(final Iterator<T> iterator, final int batchSize) {
+			this.iterator = iterator;
+			this.batchSize = batchSize;
+		}
+
+		/**
+		 * @return the next chunk or null once the input is exhausted or has failed
+		 */
+		synchronized Chunk<T> next() {
+			if (failed) {
+				return null;
+			}
+			try {
+				if (!iterator.hasNext()) {
+					return null;
+				}
+				List<T> items = new ArrayList<>(batchSize);
+				while (items.size() < batchSize && iterator.hasNext()) {
+					items.add(iterator.next());
+				}
+				return new Chunk<>(index++, items);
+			} catch (RuntimeException | Error e) {
+				failed = true;
+				throw e;
+			}
+		}
+	}
+}
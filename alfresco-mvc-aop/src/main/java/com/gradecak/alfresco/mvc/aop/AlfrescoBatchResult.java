@@ -0,0 +1,138 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * the progress, and once completed the result, of an
+ * {@link AlfrescoBatchExecutor} execution
+ */
+public class AlfrescoBatchResult {
+
+	private final AtomicLong processedItems = new AtomicLong();
+	private final AtomicLong failedItems = new AtomicLong();
+	private final AtomicInteger processedChunks = new AtomicInteger();
+	private final AtomicInteger retriedChunks = new AtomicInteger();
+	private final List<ChunkFailure> failures = new CopyOnWriteArrayList<>();
+	private final List<Throwable> workerFailures = new CopyOnWriteArrayList<>();
+
+	void chunkProcessed(final int size) {
+		processedItems.addAndGet(size);
+		processedChunks.incrementAndGet();
+	}
+
+	void chunkRetried() {
+		retriedChunks.incrementAndGet();
+	}
+
+	void chunkFailed(final ChunkFailure failure) {
+		failedItems.addAndGet(failure.getItems().size());
+		failures.add(failure);
+	}
+
+	void workerFailed(final Throwable failure) {
+		workerFailures.add(failure);
+	}
+
+	/**
+	 * @return the number of items committed
+	 */
+	public long getProcessedItems() {
+		return processedItems.get();
+	}
+
+	/**
+	 * @return the number of items of the chunks failed after all their retries
+	 */
+	public long getFailedItems() {
+		return failedItems.get();
+	}
+
+	public int getProcessedChunks() {
+		return processedChunks.get();
+	}
+
+	public int getFailedChunks() {
+		return failures.size();
+	}
+
+	/**
+	 * @return the number of chunk retries, successful or not
+	 */
+	public int getRetriedChunks() {
+		return retriedChunks.get();
+	}
+
+	public List<ChunkFailure> getFailures() {
+		return Collections.unmodifiableList(failures);
+	}
+
+	/**
+	 * @return the failures that stopped a worker outside of a chunk, i.e. reading
+	 *         the input or notifying the progress listener. The input might then
+	 *         not have been processed entirely.
+	 */
+	public List<Throwable> getWorkerFailures() {
+		return Collections.unmodifiableList(workerFailures);
+	}
+
+	public boolean hasFailures() {
+		return !failures.isEmpty() || !workerFailures.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "processed items: " + getProcessedItems() + ", failed items: " + getFailedItems()
+				+ ", processed chunks: " + getProcessedChunks() + ", failed chunks: " + getFailedChunks()
+				+ ", retried chunks: " + getRetriedChunks() + ", worker failures: " + workerFailures.size();
+	}
+
+	/**
+	 * a chunk rolled back after all its retries
+	 */
+	public static class ChunkFailure {
+
+		private final int index;
+		private final List<?> items;
+		private final Throwable cause;
+
+		ChunkFailure(final int index, final List<?> items, final Throwable cause) {
+			this.index = index;
+			this.items = items;
+			this.cause = cause;
+		}
+
+		/**
+		 * @return the position of the chunk in the input, starting at 0
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		public List<?> getItems() {
+			return items;
+		}
+
+		public Throwable getCause() {
+			return cause;
+		}
+	}
+}
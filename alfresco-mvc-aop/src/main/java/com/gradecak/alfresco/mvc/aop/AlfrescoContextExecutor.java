@@ -0,0 +1,82 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.aop;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * an executor running each task on a virtual thread (Java 21+) or on a cached
+ * thread pool on older runtimes. The tasks are decorated by an
+ * {@link AlfrescoContextTaskDecorator}.
+ * <p>
+ * Registered as "mvc.aop.alfrescoAsyncExecutor", a method of a proxied package
+ * annotated with {@code @Async("mvc.aop.alfrescoAsyncExecutor")} runs the
+ * Alfresco advices on the executor thread. Transactions are thread bound, an
+ * {@code @AlfrescoTransaction} on such a method therefore opens its transaction
+ * on the executor thread.
+ */
+public class AlfrescoContextExecutor extends TaskExecutorAdapter implements DisposableBean {
+
+	public static final String BEAN_NAME = "mvc.aop.alfrescoAsyncExecutor";
+
+	private final ExecutorService executorService;
+
+	public AlfrescoContextExecutor() {
+		this(createExecutorService());
+	}
+
+	public AlfrescoContextExecutor(final ExecutorService executorService) {
+		super(executorService);
+		this.executorService = executorService;
+		setTaskDecorator(new AlfrescoContextTaskDecorator());
+	}
+
+	/**
+	 * @return true if the tasks run on virtual threads
+	 */
+	public static boolean isVirtualThreadsAvailable() {
+		return getVirtualThreadFactoryMethod() != null;
+	}
+
+	public void destroy() {
+		executorService.shutdown();
+	}
+
+	private static ExecutorService createExecutorService() {
+		Method factoryMethod = getVirtualThreadFactoryMethod();
+		if (factoryMethod != null) {
+			return (ExecutorService) ReflectionUtils.invokeMethod(factoryMethod, null);
+		}
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("alfresco-mvc-async-");
+		threadFactory.setDaemon(true);
+		return Executors.newCachedThreadPool(threadFactory);
+	}
+
+	private static Method getVirtualThreadFactoryMethod() {
+		// the module is compiled for Java 17, the virtual threads are looked up at
+		// runtime
+		return ReflectionUtils.findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+	}
+}
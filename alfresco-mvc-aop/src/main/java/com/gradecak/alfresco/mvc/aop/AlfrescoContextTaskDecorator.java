@@ -0,0 +1,69 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.aop;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.extensions.surf.util.I18NUtil;
+
+import net.sf.acegisecurity.Authentication;
+
+/**
+ * propagates the Alfresco authentication (including the run as user), the
+ * locales and the MDC of the submitting thread to the thread running the task
+ * and clears them afterwards. The transactions are thread bound and never
+ * propagated, the task has to start its own transaction, e.g. by calling an
+ * {@code @AlfrescoTransaction} service.
+ */
+public class AlfrescoContextTaskDecorator implements TaskDecorator {
+
+	@Override
+	public Runnable decorate(final Runnable runnable) {
+		final Authentication fullAuthentication = AuthenticationUtil.getFullAuthentication();
+		final String runAsUser = AuthenticationUtil.getRunAsUser();
+		final Locale locale = I18NUtil.getLocale();
+		final Locale contentLocale = I18NUtil.getContentLocaleOrNull();
+		final Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+		return () -> {
+			try {
+				if (fullAuthentication != null) {
+					AuthenticationUtil.setFullAuthentication(fullAuthentication);
+					if (runAsUser != null && !runAsUser.equals(AuthenticationUtil.getFullyAuthenticatedUser())) {
+						AuthenticationUtil.setRunAsUser(runAsUser);
+					}
+				}
+				I18NUtil.setLocale(locale);
+				I18NUtil.setContentLocale(contentLocale);
+				if (mdc != null) {
+					MDC.setContextMap(mdc);
+				}
+
+				runnable.run();
+			} finally {
+				AuthenticationUtil.clearCurrentSecurityContext();
+				I18NUtil.setLocale(null);
+				I18NUtil.setContentLocale(null);
+				MDC.clear();
+			}
+		};
+	}
+}
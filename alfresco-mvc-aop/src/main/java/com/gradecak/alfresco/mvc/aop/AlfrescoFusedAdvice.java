@@ -0,0 +1,80 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.StringUtils;
+
+import com.gradecak.alfresco.mvc.annotation.AlfrescoAuthentication;
+import com.gradecak.alfresco.mvc.annotation.AlfrescoRunAs;
+import com.gradecak.alfresco.mvc.annotation.AlfrescoTransaction;
+
+/**
+ * applies the {@link AuthenticationAdvice}, {@link RunAsAdvice} and
+ * {@link TransactionalAdvice} in a single interceptor: the annotations are
+ * looked up once per invocation and the proxy is entered only once.
+ * <p>
+ * The steps are nested like the separate advisors listed in
+ * {@link PackageAutoProxyCreator#DEFAULT_INTERCEPTORS}: the authentication is
+ * checked first, then the run-as is applied and the transaction runs inside of
+ * it, so that it is committed as the run-as user. Enabled with
+ * {@link PackageAutoProxyCreator#setFusedInterceptors(boolean)}.
+ */
+public class AlfrescoFusedAdvice implements MethodInterceptor {
+
+	private final AlfrescoAnnotationAttributeSource attributeSource;
+	private final AuthenticationAdvice authenticationAdvice;
+	private final RunAsAdvice runAsAdvice;
+	private final TransactionalAdvice transactionalAdvice;
+
+	public AlfrescoFusedAdvice(final AlfrescoAnnotationAttributeSource attributeSource,
+			final AuthenticationAdvice authenticationAdvice, final RunAsAdvice runAsAdvice,
+			final TransactionalAdvice transactionalAdvice) {
+		this.attributeSource = attributeSource;
+		this.authenticationAdvice = authenticationAdvice;
+		this.runAsAdvice = runAsAdvice;
+		this.transactionalAdvice = transactionalAdvice;
+	}
+
+	public Object invoke(final MethodInvocation invocation) throws Throwable {
+		Class<?> targetClass = invocation.getThis() != null ? invocation.getThis().getClass() : null;
+		AlfrescoAnnotationAttributes attributes = attributeSource.getAttributes(invocation.getMethod(), targetClass);
+		if (attributes.isEmpty()) {
+			return invocation.proceed();
+		}
+
+		AlfrescoAuthentication authentication = attributes.getAuthentication();
+		if (authentication != null) {
+			authenticationAdvice.checkAuthentication(authentication);
+		}
+
+		AlfrescoRunAs runAs = attributes.getRunAs();
+		if (runAs != null && StringUtils.hasText(runAs.value())) {
+			return runAsAdvice.invokeAs(runAs.value(), () -> invokeInTransaction(invocation, attributes));
+		}
+		return invokeInTransaction(invocation, attributes);
+	}
+
+	private Object invokeInTransaction(final MethodInvocation invocation, final AlfrescoAnnotationAttributes attributes)
+			throws Throwable {
+		AlfrescoTransaction transaction = attributes.getTransaction();
+		if (transaction != null) {
+			return transactionalAdvice.invokeInTransaction(transaction, invocation::proceed);
+		}
+		return invocation.proceed();
+	}
+}
@@ -17,10 +17,13 @@
 package com.gradecak.alfresco.mvc.aop;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.RootBeanDefinition;
@@ -77,10 +80,14 @@ public class AlfrescoProxyRegistrar implements ImportBeanDefinitionRegistrar {
 			registry.registerBeanDefinition("propertySourcesPlaceholderConfigurer", beanDefinition);
 		}
 
-		Iterable<String> basePackages = getBasePackages();
-		for (String basePackage : basePackages) {
-			registerOrEscalateApcAsRequired(PackageAutoProxyCreator.class, registry, null, basePackage);
+		boolean fusedInterceptors = attributes.getBoolean("fusedInterceptors");
+		boolean annotatedOnly = attributes.getBoolean("annotatedOnly");
+		Set<String> basePackages = new LinkedHashSet<>();
+		for (String basePackage : getBasePackages()) {
+			basePackages.add(basePackage);
 		}
+		registerOrEscalateApcAsRequired(PackageAutoProxyCreator.class, registry, null, basePackages, fusedInterceptors,
+				annotatedOnly);
 
 		// if (!registry.containsBeanDefinition(AUTOWIRED_PROCESSOR_BEAN_NAME)) {
 		// RootBeanDefinition beanDefinition = new
@@ -124,18 +131,66 @@ public class AlfrescoProxyRegistrar implements ImportBeanDefinitionRegistrar {
 
 	public static void registerOrEscalateApcAsRequired(Class<PackageAutoProxyCreator> cls,
 			BeanDefinitionRegistry registry, Object source, String basePackage) {
+		registerOrEscalateApcAsRequired(cls, registry, source, basePackage, false);
+	}
+
+	public static void registerOrEscalateApcAsRequired(Class<PackageAutoProxyCreator> cls,
+			BeanDefinitionRegistry registry, Object source, String basePackage, boolean fusedInterceptors) {
+		registerOrEscalateApcAsRequired(cls, registry, source, Collections.singleton(basePackage), fusedInterceptors);
+	}
+
+	public static BeanDefinition registerOrEscalateApcAsRequired(Class<PackageAutoProxyCreator> cls,
+			BeanDefinitionRegistry registry, Object source, Collection<String> basePackages,
+			boolean fusedInterceptors) {
+		return registerOrEscalateApcAsRequired(cls, registry, source, basePackages, fusedInterceptors, false);
+	}
+
+	/**
+	 * registers a single proxy creator per distinct set of options, the packages
+	 * of further registrations with the same options are added to the already
+	 * registered one so that only one proxy creator is consulted per bean
+	 */
+	public static BeanDefinition registerOrEscalateApcAsRequired(Class<PackageAutoProxyCreator> cls,
+			BeanDefinitionRegistry registry, Object source, Collection<String> basePackages,
+			boolean fusedInterceptors, boolean annotatedOnly) {
 		Assert.notNull(registry, "BeanDefinitionRegistry must not be null");
 
-		String proxyPackageBeanName = PACKAGE_PROXY_CREATOR_BEAN_NAME + "." + basePackage;
-		if (registry.containsBeanDefinition(proxyPackageBeanName)) {
-			return;
+		String beanName = getProxyCreatorBeanName(fusedInterceptors, annotatedOnly);
+		if (registry.containsBeanDefinition(beanName)) {
+			BeanDefinition beanDefinition = registry.getBeanDefinition(beanName);
+			Set<String> packages = new LinkedHashSet<>();
+			PropertyValue registered = beanDefinition.getPropertyValues().getPropertyValue("basePackages");
+			if (registered != null && registered.getValue() instanceof String[]) {
+				packages.addAll(Arrays.asList((String[]) registered.getValue()));
+			}
+			packages.addAll(basePackages);
+			beanDefinition.getPropertyValues().add("basePackages", packages.toArray(new String[packages.size()]));
+			return beanDefinition;
 		}
 
 		RootBeanDefinition beanDefinition = new RootBeanDefinition(cls);
 		beanDefinition.setSource(source);
 		beanDefinition.getPropertyValues().add("order", Ordered.HIGHEST_PRECEDENCE);
-		beanDefinition.getPropertyValues().add("basePackage", basePackage);
+		beanDefinition.getPropertyValues().add("basePackages", basePackages.toArray(new String[basePackages.size()]));
+		beanDefinition.getPropertyValues().add("fusedInterceptors", fusedInterceptors);
+		beanDefinition.getPropertyValues().add("annotatedOnly", annotatedOnly);
 		beanDefinition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
-		registry.registerBeanDefinition(proxyPackageBeanName, beanDefinition);
+		registry.registerBeanDefinition(beanName, beanDefinition);
+		return beanDefinition;
+	}
+
+	/**
+	 * @return {@link #PACKAGE_PROXY_CREATOR_BEAN_NAME} for the default options,
+	 *         suffixed by the enabled options otherwise
+	 */
+	public static String getProxyCreatorBeanName(boolean fusedInterceptors, boolean annotatedOnly) {
+		StringBuilder beanName = new StringBuilder(PACKAGE_PROXY_CREATOR_BEAN_NAME);
+		if (fusedInterceptors) {
+			beanName.append(".fusedInterceptors");
+		}
+		if (annotatedOnly) {
+			beanName.append(".annotatedOnly");
+		}
+		return beanName.toString();
 	}
 }
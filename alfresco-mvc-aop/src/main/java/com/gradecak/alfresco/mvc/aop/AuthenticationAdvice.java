@@ -16,93 +16,171 @@
 
 package com.gradecak.alfresco.mvc.aop;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.alfresco.repo.security.authentication.AuthenticationException;
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.alfresco.repo.transaction.AlfrescoTransactionSupport;
 import org.alfresco.service.ServiceRegistry;
 import org.alfresco.service.cmr.security.AuthenticationService;
 import org.alfresco.service.cmr.security.AuthorityService;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
-import org.springframework.core.BridgeMethodResolver;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import com.gradecak.alfresco.mvc.annotation.AlfrescoAuthentication;
 import com.gradecak.alfresco.mvc.annotation.AuthenticationType;
 
+/**
+ * checks the authentication required by {@link AlfrescoAuthentication}.
+ * <p>
+ * The authorities of the current ticket are resolved once per request (when a
+ * Spring web request is bound to the thread) or otherwise once per
+ * transaction. The ticket itself is read on every check, a ticket changed or
+ * invalidated within the same call graph is checked again.
+ */
 public class AuthenticationAdvice implements MethodInterceptor {
 
+	private static final String CHECKS_KEY = AuthenticationAdvice.class.getName() + ".checks";
+
+	private static final boolean REQUEST_SCOPE_PRESENT = ClassUtils.isPresent(
+			"org.springframework.web.context.request.RequestContextHolder", AuthenticationAdvice.class.getClassLoader());
+
 	private final ServiceRegistry serviceRegistry;
+	private final AlfrescoAnnotationAttributeSource attributeSource;
+	private boolean cacheChecks = true;
 
 	public AuthenticationAdvice(final ServiceRegistry serviceRegistry) {
+		this(serviceRegistry, new AlfrescoAnnotationAttributeSource());
+	}
+
+	public AuthenticationAdvice(final ServiceRegistry serviceRegistry,
+			final AlfrescoAnnotationAttributeSource attributeSource) {
 		this.serviceRegistry = serviceRegistry;
+		this.attributeSource = attributeSource;
 	}
 
 	public Object invoke(final MethodInvocation invocation) throws Throwable {
 
 		Class<?> targetClass = invocation.getThis() != null ? invocation.getThis().getClass() : null;
 
-		Method specificMethod = ClassUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
-		// If we are dealing with method with generic parameters, find the original
-		// method.
-		specificMethod = BridgeMethodResolver.findBridgedMethod(specificMethod);
-
-		AlfrescoAuthentication alfrescoAuthentication = parseAnnotation(specificMethod);
+		AlfrescoAuthentication alfrescoAuthentication = attributeSource
+				.getAttributes(invocation.getMethod(), targetClass).getAuthentication();
 
 		if (alfrescoAuthentication != null) {
+			checkAuthentication(alfrescoAuthentication);
+		}
 
-			AuthenticationType authenticationType = alfrescoAuthentication.value();
-
-			if (authenticationType != null && !AuthenticationType.NONE.equals(authenticationType)) {
-				AuthenticationService authenticationService = serviceRegistry.getAuthenticationService();
-				AuthorityService authorityService = serviceRegistry.getAuthorityService();
-
-				String ticket = authenticationService.getCurrentTicket();
-				if (StringUtils.hasText(ticket)) {
-					if (AuthenticationType.USER.equals(authenticationType) && authorityService.hasGuestAuthority()) {
-						throw new AuthenticationException(
-								"User has guest authority where at least a user authentication is required.");
-					} else if (AuthenticationType.ADMIN.equals(authenticationType)
-							&& !authorityService.hasAdminAuthority()) {
-						throw new AuthenticationException(
-								"User does not have admin authority where at least named admin authentication is required .");
-					}
-				} else if (AuthenticationType.GUEST.equals(authenticationType)
-						&& authenticationService.guestUserAuthenticationAllowed()) {
-					authenticationService.authenticateAsGuest();
-				} else {
-					throw new AuthenticationException("\nUnable to authenticate due to one of the following reasons:\n"
-							+ "Credentials are not provided in HTTP request where at least named user or admin authentication is required.\n"
-							+ "Guest user authentication is not allowed where at least guest authentication is required.\n");
+		return invocation.proceed();
+	}
+
+	void checkAuthentication(final AlfrescoAuthentication alfrescoAuthentication) {
+		AuthenticationType authenticationType = alfrescoAuthentication.value();
+
+		if (authenticationType != null && !AuthenticationType.NONE.equals(authenticationType)) {
+			AuthenticationService authenticationService = serviceRegistry.getAuthenticationService();
+			AuthorityService authorityService = serviceRegistry.getAuthorityService();
+
+			String ticket = authenticationService.getCurrentTicket();
+			if (StringUtils.hasText(ticket)) {
+				// the authorities depend on the run as user
+				Map<String, AuthenticationCheck> checks = cacheChecks ? getScopedChecks() : null;
+				AuthenticationCheck check = checks != null
+						? checks.computeIfAbsent(ticket + "/" + AuthenticationUtil.getFullyAuthenticatedUser() + "/"
+								+ AuthenticationUtil.getRunAsUser(), key -> new AuthenticationCheck())
+						: new AuthenticationCheck();
+
+				if (AuthenticationType.USER.equals(authenticationType) && check.hasGuestAuthority(authorityService)) {
+					throw new AuthenticationException(
+							"User has guest authority where at least a user authentication is required.");
+				} else if (AuthenticationType.ADMIN.equals(authenticationType)
+						&& !check.hasAdminAuthority(authorityService)) {
+					throw new AuthenticationException(
+							"User does not have admin authority where at least named admin authentication is required .");
 				}
+			} else if (AuthenticationType.GUEST.equals(authenticationType)
+					&& authenticationService.guestUserAuthenticationAllowed()) {
+				authenticationService.authenticateAsGuest();
+			} else {
+				throw new AuthenticationException("\nUnable to authenticate due to one of the following reasons:\n"
+						+ "Credentials are not provided in HTTP request where at least named user or admin authentication is required.\n"
+						+ "Guest user authentication is not allowed where at least guest authentication is required.\n");
 			}
 		}
+	}
 
-		return invocation.proceed();
+	/**
+	 * @return the checks of the current request or transaction, null if there is
+	 *         none
+	 */
+	private Map<String, AuthenticationCheck> getScopedChecks() {
+		if (REQUEST_SCOPE_PRESENT) {
+			Map<String, AuthenticationCheck> checks = RequestScope.getChecks();
+			if (checks != null) {
+				return checks;
+			}
+		}
+
+		if (TransactionalAdvice.isTransactionActive(AlfrescoTransactionSupport.getTransactionReadState())) {
+			Map<String, AuthenticationCheck> checks = AlfrescoTransactionSupport.getResource(CHECKS_KEY);
+			if (checks == null) {
+				checks = new ConcurrentHashMap<>();
+				AlfrescoTransactionSupport.bindResource(CHECKS_KEY, checks);
+			}
+			return checks;
+		}
+		return null;
 	}
 
-	private AlfrescoAuthentication parseAnnotation(AnnotatedElement ae) {
-		AlfrescoAuthentication ann = ae.getAnnotation(AlfrescoAuthentication.class);
-		if (ann == null) {
-			for (Annotation metaAnn : ae.getAnnotations()) {
-				ann = metaAnn.annotationType().getAnnotation(AlfrescoAuthentication.class);
-				if (ann != null) {
-					break;
-				}
+	/**
+	 * @param cacheChecks false to resolve the ticket and the authorities on every
+	 *                    call
+	 */
+	public void setCacheChecks(final boolean cacheChecks) {
+		this.cacheChecks = cacheChecks;
+	}
+
+	private static class AuthenticationCheck {
+		private volatile Boolean guestAuthority;
+		private volatile Boolean adminAuthority;
+
+		boolean hasGuestAuthority(final AuthorityService authorityService) {
+			if (guestAuthority == null) {
+				guestAuthority = authorityService.hasGuestAuthority();
 			}
+			return guestAuthority;
 		}
-		if (ann != null) {
-			return parseAnnotation(ann);
-		} else {
-			return null;
+
+		boolean hasAdminAuthority(final AuthorityService authorityService) {
+			if (adminAuthority == null) {
+				adminAuthority = authorityService.hasAdminAuthority();
+			}
+			return adminAuthority;
 		}
 	}
 
-	private AlfrescoAuthentication parseAnnotation(AlfrescoAuthentication ann) {
-		// parse if needed something else
-		return ann;
+	/**
+	 * isolates the optional spring-web dependency
+	 */
+	private static class RequestScope {
+
+		@SuppressWarnings("unchecked")
+		static Map<String, AuthenticationCheck> getChecks() {
+			RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+			if (attributes == null) {
+				return null;
+			}
+
+			Object checks = attributes.getAttribute(CHECKS_KEY, RequestAttributes.SCOPE_REQUEST);
+			if (checks == null) {
+				checks = new ConcurrentHashMap<String, AuthenticationCheck>();
+				attributes.setAttribute(CHECKS_KEY, checks, RequestAttributes.SCOPE_REQUEST);
+			}
+			return (Map<String, AuthenticationCheck>) checks;
+		}
 	}
 }
@@ -17,19 +17,32 @@
 package com.gradecak.alfresco.mvc.aop;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.framework.autoproxy.AbstractAutoProxyCreator;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 
 /**
  * a proxy creator that applies the specified advisors to the classes defined in
- * the base package. The default advisors are {@link AuthenticationAdvice},
+ * the base packages. A base package is either a plain package name or an
+ * Ant-style pattern such as <code>com.acme.**</code> to include the
+ * subpackages, see {@link PackageMatcher}. The default advisors are {@link AuthenticationAdvice},
  * {@link RunAsAdvice} and {@link TransactionalAdvice} however your own might be
  * added and the default could be skipped by setting skipDefaultInterceptos to
- * true
+ * true. With fusedInterceptors the default advisors are replaced by the single
+ * {@link AlfrescoFusedAdvice}.
+ * <p>
+ * With annotatedOnly the classes without any Alfresco @MVC annotation are not
+ * proxied (unless custom interceptors are set) and the proxies are frozen: the
+ * interceptors of each method are then computed once when the proxy is created
+ * and the methods without interceptors invoke the target directly.
  */
 public class PackageAutoProxyCreator extends AbstractAutoProxyCreator implements InitializingBean {
 
@@ -38,32 +51,58 @@ public class PackageAutoProxyCreator extends AbstractAutoProxyCreator implements
 	public static final String[] DEFAULT_INTERCEPTORS = { "mvc.aop.alfrescoAuthenticationAdvisor",
 			"mvc.aop.alfrescoRunAsAdvisor", "mvc.aop.alfrescoTransactionAdvisor" };
 
-	private String basePackage;
+	public static final String FUSED_INTERCEPTOR = "mvc.aop.alfrescoFusedAdvisor";
+
+	public static final String ATTRIBUTE_SOURCE_BEAN_NAME = "mvc.aop.annotationAttributeSource";
+
+	private final Set<String> basePackages = new LinkedHashSet<>();
+	private volatile PackageMatcher packageMatcher;
 	private boolean skipDefaultInterceptos = false;
-	private boolean defaultInterceptorsSet = false;
+	private boolean fusedInterceptors = false;
+	private boolean annotatedOnly = false;
+	private String[] interceptorNames;
+	private AlfrescoAnnotationAttributeSource attributeSource;
 
 	public void afterPropertiesSet() throws Exception {
-		if (!defaultInterceptorsSet) {
-			super.setInterceptorNames(withDefaultInterceptorNames(null));
+		// resolved once all the properties are set as they do not depend on the order
+		// of the setters
+		super.setInterceptorNames(withDefaultInterceptorNames(interceptorNames));
+		if (annotatedOnly) {
+			setFrozen(true);
 		}
 	}
 
 	/**
-	 * Identify as bean to proxy if the bean name is in the configured base package.
+	 * Identify as bean to proxy if the bean class is in one of the configured base
+	 * packages.
 	 */
 	protected Object[] getAdvicesAndAdvisorsForBean(final Class<?> beanClass, final String beanName,
 			final TargetSource targetSource) {
-		if (this.basePackage != null) {
-			if (beanClass != null && beanClass.getPackage() != null
-					&& beanClass.getPackage().getName().equals(basePackage)) {
-				return PROXY_WITHOUT_ADDITIONAL_INTERCEPTORS;
+		if (beanClass != null && getPackageMatcher().matches(ClassUtils.getPackageName(beanClass))) {
+			// the annotations of the proxied class are matched once, calls do not match
+			// anything
+			AlfrescoAnnotationAttributeSource source = getAttributeSource();
+			boolean annotated = source == null || source.hasAttributes(beanClass);
+			if (!annotated && annotatedOnly && ObjectUtils.isEmpty(interceptorNames)) {
+				return DO_NOT_PROXY;
 			}
+			return PROXY_WITHOUT_ADDITIONAL_INTERCEPTORS;
 		}
 		return DO_NOT_PROXY;
 	}
 
+	private PackageMatcher getPackageMatcher() {
+		PackageMatcher matcher = packageMatcher;
+		if (matcher == null) {
+			matcher = new PackageMatcher(basePackages);
+			packageMatcher = matcher;
+		}
+		return matcher;
+	}
+
 	@Override
 	public void setInterceptorNames(final String... interceptorNames) {
+		this.interceptorNames = interceptorNames;
 		super.setInterceptorNames(withDefaultInterceptorNames(interceptorNames));
 	}
 
@@ -71,10 +110,13 @@ public class PackageAutoProxyCreator extends AbstractAutoProxyCreator implements
 		List<String> interceptors = new ArrayList<String>();
 
 		if (!skipDefaultInterceptos) {
-			for (String interceptorName : DEFAULT_INTERCEPTORS) {
-				interceptors.add(interceptorName);
+			if (fusedInterceptors) {
+				interceptors.add(FUSED_INTERCEPTOR);
+			} else {
+				for (String interceptorName : DEFAULT_INTERCEPTORS) {
+					interceptors.add(interceptorName);
+				}
 			}
-			defaultInterceptorsSet = true;
 		}
 
 		if (!ObjectUtils.isEmpty(interceptorNames)) {
@@ -86,11 +128,65 @@ public class PackageAutoProxyCreator extends AbstractAutoProxyCreator implements
 		return interceptors.toArray(new String[interceptors.size()]);
 	}
 
+	private AlfrescoAnnotationAttributeSource getAttributeSource() {
+		if (attributeSource == null) {
+			BeanFactory beanFactory = getBeanFactory();
+			if (beanFactory != null && beanFactory.containsBean(ATTRIBUTE_SOURCE_BEAN_NAME)) {
+				attributeSource = beanFactory.getBean(ATTRIBUTE_SOURCE_BEAN_NAME,
+						AlfrescoAnnotationAttributeSource.class);
+			}
+		}
+		return attributeSource;
+	}
+
+	public void setAttributeSource(final AlfrescoAnnotationAttributeSource attributeSource) {
+		this.attributeSource = attributeSource;
+	}
+
 	public void setBasePackage(final String basePackage) {
-		this.basePackage = basePackage;
+		setBasePackages(basePackage);
+	}
+
+	/**
+	 * @param basePackages package names or Ant-style package patterns, added to the
+	 *                     already configured ones
+	 */
+	public void setBasePackages(final String... basePackages) {
+		if (basePackages != null) {
+			this.basePackages.addAll(Arrays.asList(basePackages));
+			this.packageMatcher = null;
+		}
+	}
+
+	public Set<String> getBasePackages() {
+		return basePackages;
 	}
 
 	public void setSkipDefaultInterceptos(final boolean skipDefaultInterceptos) {
 		this.skipDefaultInterceptos = skipDefaultInterceptos;
 	}
+
+	/**
+	 * @param fusedInterceptors true to apply the default advisors through the
+	 *                          single {@link #FUSED_INTERCEPTOR}
+	 */
+	public void setFusedInterceptors(final boolean fusedInterceptors) {
+		this.fusedInterceptors = fusedInterceptors;
+	}
+
+	public boolean isFusedInterceptors() {
+		return fusedInterceptors;
+	}
+
+	/**
+	 * @param annotatedOnly true to proxy only the classes having at least one
+	 *                      Alfresco @MVC annotation, with frozen proxies
+	 */
+	public void setAnnotatedOnly(final boolean annotatedOnly) {
+		this.annotatedOnly = annotatedOnly;
+	}
+
+	public boolean isAnnotatedOnly() {
+		return annotatedOnly;
+	}
 }
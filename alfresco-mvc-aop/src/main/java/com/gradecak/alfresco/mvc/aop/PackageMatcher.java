@@ -0,0 +1,122 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * matches package names against a set of package patterns compiled into a
+ * trie of package segments, the patterns sharing a prefix are walked once.
+ * Without <code>**</code> a decision costs one lookup per segment of the
+ * package name, each <code>**</code> may backtrack over the remaining
+ * segments.
+ * <p>
+ * A pattern is either a plain package name, matching only that package, or an
+ * Ant-style pattern where <code>*</code> matches (part of) one segment and
+ * <code>**</code> matches zero or more segments, e.g.
+ * <code>com.acme.service.**</code> matches com.acme.service and all its
+ * subpackages.
+ */
+public final class PackageMatcher {
+
+	private static final String ANY_SEGMENTS = "**";
+
+	private final Node root = new Node();
+	private final List<String> patterns = new ArrayList<>();
+
+	public PackageMatcher(final Collection<String> patterns) {
+		for (String pattern : patterns) {
+			if (StringUtils.hasText(pattern)) {
+				add(pattern.trim());
+			}
+		}
+	}
+
+	private void add(final String pattern) {
+		Node node = root;
+		for (String segment : StringUtils.tokenizeToStringArray(pattern, ".")) {
+			if (ANY_SEGMENTS.equals(segment)) {
+				if (node.anySegments == null) {
+					node.anySegments = new Node();
+				}
+				node = node.anySegments;
+			} else if (segment.indexOf('*') >= 0) {
+				node = node.patternChildren.computeIfAbsent(segment, key -> new Node());
+			} else {
+				node = node.children.computeIfAbsent(segment, key -> new Node());
+			}
+		}
+		node.terminal = true;
+		patterns.add(pattern);
+	}
+
+	/**
+	 * @param packageName the package name, empty for the default package
+	 */
+	public boolean matches(final String packageName) {
+		return matches(root, StringUtils.tokenizeToStringArray(packageName, "."), 0);
+	}
+
+	public boolean isEmpty() {
+		return patterns.isEmpty();
+	}
+
+	private static boolean matches(final Node node, final String[] segments, final int index) {
+		if (node.anySegments != null) {
+			for (int i = index; i <= segments.length; i++) {
+				if (matches(node.anySegments, segments, i)) {
+					return true;
+				}
+			}
+		}
+
+		if (index == segments.length) {
+			return node.terminal;
+		}
+
+		Node child = node.children.get(segments[index]);
+		if (child != null && matches(child, segments, index + 1)) {
+			return true;
+		}
+
+		for (Map.Entry<String, Node> entry : node.patternChildren.entrySet()) {
+			if (PatternMatchUtils.simpleMatch(entry.getKey(), segments[index])
+					&& matches(entry.getValue(), segments, index + 1)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return patterns.toString();
+	}
+
+	private static class Node {
+		private final Map<String, Node> children = new HashMap<>();
+		private final Map<String, Node> patternChildren = new HashMap<>();
+		private Node anySegments;
+		private boolean terminal;
+	}
+}
@@ -16,73 +16,166 @@
 
 package com.gradecak.alfresco.mvc.aop;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import jakarta.transaction.UserTransaction;
+
+import org.alfresco.repo.transaction.AlfrescoTransactionSupport;
+import org.alfresco.repo.transaction.AlfrescoTransactionSupport.TxnReadState;
+import org.alfresco.repo.transaction.RetryingTransactionHelper;
 import org.alfresco.repo.transaction.RetryingTransactionHelper.RetryingTransactionCallback;
 import org.alfresco.service.ServiceRegistry;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
-import org.springframework.core.BridgeMethodResolver;
+import org.springframework.transaction.IllegalTransactionStateException;
 import org.springframework.transaction.annotation.Propagation;
-import org.springframework.util.ClassUtils;
 
 import com.gradecak.alfresco.mvc.annotation.AlfrescoTransaction;
 
+/**
+ * runs the methods annotated with {@link AlfrescoTransaction} in an Alfresco
+ * retrying transaction. The methods tuning the retries get their own retrying
+ * transaction helper, created once per retry configuration.
+ */
 public class TransactionalAdvice implements MethodInterceptor {
 
 	private final ServiceRegistry serviceRegistry;
+	private final AlfrescoAnnotationAttributeSource attributeSource;
+	private final Map<List<Integer>, RetryingTransactionHelper> helpers = new ConcurrentHashMap<>();
 
 	public TransactionalAdvice(final ServiceRegistry serviceRegistry) {
+		this(serviceRegistry, new AlfrescoAnnotationAttributeSource());
+	}
+
+	public TransactionalAdvice(final ServiceRegistry serviceRegistry,
+			final AlfrescoAnnotationAttributeSource attributeSource) {
 		this.serviceRegistry = serviceRegistry;
+		this.attributeSource = attributeSource;
 	}
 
 	public Object invoke(final MethodInvocation invocation) throws Throwable {
 		Class<?> targetClass = invocation.getThis() != null ? invocation.getThis().getClass() : null;
-
-		Method specificMethod = ClassUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
-		// If we are dealing with method with generic parameters, find the original
-		// method.
-		specificMethod = BridgeMethodResolver.findBridgedMethod(specificMethod);
-		AlfrescoTransaction alfrescoTransaction = parseAnnotation(specificMethod);
+		AlfrescoTransaction alfrescoTransaction = attributeSource.getAttributes(invocation.getMethod(), targetClass)
+				.getTransaction();
 
 		if (alfrescoTransaction != null) {
-			RetryingTransactionCallback<Object> exampleWork = new RetryingTransactionCallback<Object>() {
-				public Object execute() throws Throwable {
-					return invocation.proceed();
-				}
-			};
-			boolean readonly = alfrescoTransaction.readOnly();
-			Propagation propagation = alfrescoTransaction.propagation();
-
-			boolean requiresNew = Propagation.REQUIRES_NEW.equals(propagation);
-			return serviceRegistry.getRetryingTransactionHelper().doInTransaction(exampleWork, readonly, requiresNew);
+			return invokeInTransaction(alfrescoTransaction, invocation::proceed);
 		} else {
 			return invocation.proceed();
 		}
 
 	}
 
-	private AlfrescoTransaction parseAnnotation(AnnotatedElement ae) {
-		AlfrescoTransaction ann = ae.getAnnotation(AlfrescoTransaction.class);
-		if (ann == null) {
-			for (Annotation metaAnn : ae.getAnnotations()) {
-				ann = metaAnn.annotationType().getAnnotation(AlfrescoTransaction.class);
-				if (ann != null) {
-					break;
+	Object invokeInTransaction(final AlfrescoTransaction alfrescoTransaction, final InvocationCallback callback)
+			throws Throwable {
+		Propagation propagation = alfrescoTransaction.propagation();
+		TxnReadState readState = AlfrescoTransactionSupport.getTransactionReadState();
+
+		switch (propagation) {
+		case SUPPORTS:
+			return proceedInActiveTransaction(callback);
+		case MANDATORY:
+			if (!isTransactionActive(readState)) {
+				throw new IllegalTransactionStateException(
+						"No existing transaction found for transaction marked with propagation 'mandatory'");
+			}
+			return proceedInActiveTransaction(callback);
+		case NEVER:
+			if (isTransactionActive(readState)) {
+				throw new IllegalTransactionStateException(
+						"Existing transaction found for transaction marked with propagation 'never'");
+			}
+			return callback.proceedWithInvocation();
+		default:
+			break;
+		}
+
+		boolean readonly = alfrescoTransaction.readOnly();
+		boolean requiresNew = Propagation.REQUIRES_NEW.equals(propagation);
+
+		// joining the current transaction, nested calls skip the retrying helper
+		if (!requiresNew && isCompatibleTransaction(readState, readonly)) {
+			return proceedInActiveTransaction(callback);
+		}
+
+		RetryingTransactionCallback<Object> exampleWork = new RetryingTransactionCallback<Object>() {
+			public Object execute() throws Throwable {
+				return callback.proceedWithInvocation();
+			}
+		};
+		return getRetryingTransactionHelper(alfrescoTransaction).doInTransaction(exampleWork, readonly, requiresNew);
+	}
+
+	/**
+	 * runs the callback in the active transaction, if any. As with a transaction
+	 * joined by the {@link RetryingTransactionHelper}, a failure marks the active
+	 * transaction rollback-only, so that it is not committed even if the caller
+	 * handles the exception.
+	 */
+	static Object proceedInActiveTransaction(final InvocationCallback callback) throws Throwable {
+		try {
+			return callback.proceedWithInvocation();
+		} catch (Throwable e) {
+			try {
+				UserTransaction transaction = RetryingTransactionHelper.getActiveUserTransaction();
+				if (transaction != null) {
+					transaction.setRollbackOnly();
 				}
+			} catch (Exception rollbackException) {
+				e.addSuppressed(rollbackException);
 			}
+			throw e;
 		}
-		if (ann != null) {
-			return parseAnnotation(ann);
-		} else {
-			return null;
+	}
+
+	/**
+	 * @return the shared helper of the service registry or, if the retries are
+	 *         tuned, the helper dedicated to the retry configuration
+	 */
+	RetryingTransactionHelper getRetryingTransactionHelper(final AlfrescoTransaction alfrescoTransaction) {
+		if (alfrescoTransaction.maxRetries() < 0 && alfrescoTransaction.minRetryWaitMs() < 0
+				&& alfrescoTransaction.maxRetryWaitMs() < 0 && alfrescoTransaction.retryWaitIncrementMs() < 0) {
+			return serviceRegistry.getRetryingTransactionHelper();
 		}
+
+		List<Integer> retryConfiguration = List.of(alfrescoTransaction.maxRetries(),
+				alfrescoTransaction.minRetryWaitMs(), alfrescoTransaction.maxRetryWaitMs(),
+				alfrescoTransaction.retryWaitIncrementMs());
+		return helpers.computeIfAbsent(retryConfiguration, key -> createRetryingTransactionHelper(alfrescoTransaction));
+	}
+
+	/**
+	 * the transaction service creates a new helper configured with the global
+	 * retry settings, only the tuned ones are then overridden
+	 */
+	protected RetryingTransactionHelper createRetryingTransactionHelper(final AlfrescoTransaction alfrescoTransaction) {
+		RetryingTransactionHelper helper = serviceRegistry.getTransactionService().getRetryingTransactionHelper();
+		if (alfrescoTransaction.maxRetries() >= 0) {
+			helper.setMaxRetries(alfrescoTransaction.maxRetries());
+		}
+		if (alfrescoTransaction.minRetryWaitMs() >= 0) {
+			helper.setMinRetryWaitMs(alfrescoTransaction.minRetryWaitMs());
+		}
+		if (alfrescoTransaction.maxRetryWaitMs() >= 0) {
+			helper.setMaxRetryWaitMs(alfrescoTransaction.maxRetryWaitMs());
+		}
+		if (alfrescoTransaction.retryWaitIncrementMs() >= 0) {
+			helper.setRetryWaitIncrementMs(alfrescoTransaction.retryWaitIncrementMs());
+		}
+		return helper;
+	}
+
+	static boolean isTransactionActive(final TxnReadState readState) {
+		return readState != null && readState != TxnReadState.TXN_NONE;
 	}
 
-	private AlfrescoTransaction parseAnnotation(AlfrescoTransaction ann) {
-		// parse if needed something else
-		return ann;
+	/**
+	 * @return true if a read-write transaction is active or if a read-only one is
+	 *         active and a read-only transaction is required
+	 */
+	static boolean isCompatibleTransaction(final TxnReadState readState, final boolean readOnly) {
+		return TxnReadState.TXN_READ_WRITE == readState || (readOnly && TxnReadState.TXN_READ_ONLY == readState);
 	}
 }
@@ -0,0 +1,82 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import java.lang.reflect.Method;
+
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.alfresco.service.cmr.repository.NodeRef;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Propagation;
+
+import com.gradecak.alfresco.mvc.service.ClassLevelService;
+import com.gradecak.alfresco.mvc.service.RunAsService;
+import com.gradecak.alfresco.mvc.service.TransactionalService;
+
+public class AlfrescoAnnotationAttributeSourceTest {
+
+	private final AlfrescoAnnotationAttributeSource attributeSource = new AlfrescoAnnotationAttributeSource();
+
+	@Test
+	public void when_methodIsAnnotated_expect_cachedAttributes() throws Exception {
+		Method method = TransactionalService.class.getMethod("transactioReadOnlyWithPropagationRequiresNew");
+
+		AlfrescoAnnotationAttributes attributes = attributeSource.getAttributes(method, TransactionalService.class);
+		Assertions.assertNotNull(attributes.getTransaction());
+		Assertions.assertTrue(attributes.getTransaction().readOnly());
+		Assertions.assertEquals(Propagation.REQUIRES_NEW, attributes.getTransaction().propagation());
+		Assertions.assertNull(attributes.getAuthentication());
+		Assertions.assertNull(attributes.getRunAs());
+
+		Assertions.assertSame(attributes, attributeSource.getAttributes(method, TransactionalService.class));
+	}
+
+	@Test
+	public void when_runAsMethodIsInvoked_expect_runAsResolved() throws Exception {
+		Method method = RunAsService.class.getMethod("getNamePropertyAsUser", NodeRef.class);
+		Assertions.assertEquals("user", attributeSource.getAttributes(method, RunAsService.class).getRunAs().value());
+	}
+
+	@Test
+	public void when_methodIsNotAnnotated_expect_noneCached() throws Exception {
+		Method method = RunAsService.class.getMethod("toString");
+		Assertions.assertSame(AlfrescoAnnotationAttributes.NONE,
+				attributeSource.getAttributes(method, RunAsService.class));
+		Assertions.assertTrue(attributeSource.getAttributes(TransactionalService.class.getMethod("hashCode"), null)
+				.isEmpty());
+	}
+
+	@Test
+	public void when_classIsAnnotated_expect_attributesPrecomputed() throws Exception {
+		Assertions.assertTrue(attributeSource.hasAttributes(ClassLevelService.class));
+
+		Method method = ClassLevelService.class.getMethod("runAsFromClass");
+		AlfrescoAnnotationAttributes attributes = attributeSource.getAttributes(method, ClassLevelService.class);
+		Assertions.assertEquals(AuthenticationUtil.SYSTEM_USER_NAME, attributes.getRunAs().value());
+		Assertions.assertTrue(attributes.getTransaction().readOnly());
+
+		method = ClassLevelService.class.getMethod("runAsFromMethod");
+		attributes = attributeSource.getAttributes(method, ClassLevelService.class);
+		Assertions.assertEquals("user", attributes.getRunAs().value());
+		Assertions.assertTrue(attributes.getTransaction().readOnly());
+	}
+
+	@Test
+	public void when_classIsNotAnnotated_expect_noAttributes() {
+		Assertions.assertFalse(attributeSource.hasAttributes(String.class));
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.alfresco.service.ServiceRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.gradecak.alfresco.mvc.annotation.EnableAlfrescoMvcAop;
+
+public class AlfrescoProxyRegistrarTest {
+
+	@Test
+	public void when_severalPackagesAreEnabled_expect_singleProxyCreator() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				FirstConfiguration.class, SecondConfiguration.class)) {
+			Map<String, PackageAutoProxyCreator> creators = context.getBeansOfType(PackageAutoProxyCreator.class);
+			Assertions.assertEquals(1, creators.size());
+			Assertions.assertEquals(Set.of("com.acme.a", "com.acme.b.**", "com.acme.c"),
+					creators.values().iterator().next().getBasePackages());
+		}
+	}
+
+	@Test
+	public void when_optionsDiffer_expect_proxyCreatorPerOptions() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				FirstConfiguration.class, SecondConfiguration.class, FusedConfiguration.class,
+				AnnotatedOnlyConfiguration.class)) {
+			Map<String, PackageAutoProxyCreator> creators = context.getBeansOfType(PackageAutoProxyCreator.class);
+			Assertions.assertEquals(3, creators.size());
+
+			PackageAutoProxyCreator defaultCreator = creators
+					.get(AlfrescoProxyRegistrar.getProxyCreatorBeanName(false, false));
+			Assertions.assertEquals(Set.of("com.acme.a", "com.acme.b.**", "com.acme.c"),
+					defaultCreator.getBasePackages());
+			Assertions.assertFalse(defaultCreator.isFusedInterceptors());
+			Assertions.assertFalse(defaultCreator.isAnnotatedOnly());
+
+			PackageAutoProxyCreator fusedCreator = creators
+					.get(AlfrescoProxyRegistrar.getProxyCreatorBeanName(true, false));
+			Assertions.assertEquals(Set.of("com.acme.fused"), fusedCreator.getBasePackages());
+			Assertions.assertTrue(fusedCreator.isFusedInterceptors());
+			Assertions.assertFalse(fusedCreator.isAnnotatedOnly());
+
+			PackageAutoProxyCreator annotatedOnlyCreator = creators
+					.get(AlfrescoProxyRegistrar.getProxyCreatorBeanName(false, true));
+			Assertions.assertEquals(Set.of("com.acme.annotated"), annotatedOnlyCreator.getBasePackages());
+			Assertions.assertFalse(annotatedOnlyCreator.isFusedInterceptors());
+			Assertions.assertTrue(annotatedOnlyCreator.isAnnotatedOnly());
+		}
+	}
+
+	@Configuration
+	@EnableAlfrescoMvcAop(basePackages = { "com.acme.a", "com.acme.b.**" })
+	static class FirstConfiguration {
+
+		@Bean
+		public ServiceRegistry ServiceRegistry() {
+			return Mockito.mock(ServiceRegistry.class);
+		}
+	}
+
+	@Configuration
+	@EnableAlfrescoMvcAop(basePackages = "com.acme.c", defaultPropertiesSupport = false)
+	static class SecondConfiguration {
+	}
+
+	@Configuration
+	@EnableAlfrescoMvcAop(basePackages = "com.acme.fused", defaultPropertiesSupport = false, fusedInterceptors = true)
+	static class FusedConfiguration {
+	}
+
+	@Configuration
+	@EnableAlfrescoMvcAop(basePackages = "com.acme.annotated", defaultPropertiesSupport = false, annotatedOnly = true)
+	static class AnnotatedOnlyConfiguration {
+	}
+}
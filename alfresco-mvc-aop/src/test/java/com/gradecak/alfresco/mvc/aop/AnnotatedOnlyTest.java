@@ -0,0 +1,88 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.aop;
+
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.alfresco.service.ServiceRegistry;
+import org.alfresco.service.cmr.repository.NodeRef;
+import org.alfresco.service.cmr.repository.NodeService;
+import org.alfresco.service.cmr.repository.StoreRef;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.mockito.Mockito;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+
+import com.gradecak.alfresco.mvc.annotation.EnableAlfrescoMvcAop;
+import com.gradecak.alfresco.mvc.service.PlainService;
+import com.gradecak.alfresco.mvc.service.RunAsService;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class AnnotatedOnlyTest {
+
+	private AnnotationConfigApplicationContext context;
+
+	@BeforeAll
+	public void setUp() {
+		context = new AnnotationConfigApplicationContext(AnnotatedOnlyConfiguration.class);
+		Mockito.when(context.getBean(ServiceRegistry.class).getNodeService())
+				.thenReturn(Mockito.mock(NodeService.class));
+		AuthenticationUtil.clearCurrentSecurityContext();
+	}
+
+	@AfterAll
+	public void tearDown() {
+		context.close();
+	}
+
+	@Test
+	public void when_classHasNoAnnotation_expect_noProxy() {
+		PlainService service = context.getBean(PlainService.class);
+		Assertions.assertFalse(AopUtils.isAopProxy(service));
+		Assertions.assertEquals("a", service.echo("a"));
+	}
+
+	@Test
+	public void when_classHasAnnotations_expect_frozenProxy() {
+		RunAsService service = context.getBean(RunAsService.class);
+		Assertions.assertTrue(AopUtils.isAopProxy(service));
+		Assertions.assertTrue(((Advised) service).isFrozen());
+
+		Assertions.assertTrue(((Advised) service).getAdvisors().length > 0);
+
+		service.getNamePropertyAsSystem(new NodeRef(StoreRef.STORE_REF_WORKSPACE_SPACESSTORE, "aaa"));
+	}
+
+	@Configuration
+	@EnableAlfrescoMvcAop(basePackages = "com.gradecak.alfresco.mvc.service", annotatedOnly = true)
+	@ComponentScan("com.gradecak.alfresco.mvc.service")
+	static class AnnotatedOnlyConfiguration {
+
+		@Bean
+		public ServiceRegistry ServiceRegistry() {
+			return Mockito.mock(ServiceRegistry.class);
+		}
+	}
+}
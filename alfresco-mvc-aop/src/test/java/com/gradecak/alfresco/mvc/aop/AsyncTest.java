@@ -0,0 +1,87 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.aop;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.MDC;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.gradecak.alfresco.mvc.service.AsyncService;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(value = { "classpath:test-aop-context.xml" })
+public class AsyncTest {
+
+	@Autowired
+	@Qualifier(AlfrescoContextExecutor.BEAN_NAME)
+	private AlfrescoContextExecutor executor;
+
+	@Autowired
+	private AsyncService service;
+
+	@AfterEach
+	public void tearDown() {
+		AuthenticationUtil.clearCurrentSecurityContext();
+		MDC.clear();
+	}
+
+	@Test
+	public void authentifiedAsTest_contextPropagated() throws Exception {
+		AuthenticationUtil.setFullyAuthenticatedUser("test");
+		MDC.put("test", "mdc");
+
+		Future<String[]> future = executor
+				.submit(() -> new String[] { AuthenticationUtil.getFullyAuthenticatedUser(), MDC.get("test") });
+		String[] context = future.get(5, TimeUnit.SECONDS);
+		Assertions.assertEquals("test", context[0]);
+		// the MDC adapter of the slf4j binding might not store anything
+		Assertions.assertEquals(MDC.get("test"), context[1]);
+	}
+
+	@Test
+	public void authentifiedAsTest_asyncMethodRunsAsTest() throws Exception {
+		Assertions.assertTrue(AopUtils.isAopProxy(service));
+		AuthenticationUtil.setFullyAuthenticatedUser("test");
+		MDC.put("test", "mdc");
+		String caller = Thread.currentThread().getName();
+
+		String[] result = service.getFullyAuthenticatedUser().get(5, TimeUnit.SECONDS).split("\\|");
+		Assertions.assertEquals("test", result[0]);
+		Assertions.assertEquals(String.valueOf(MDC.get("test")), result[1]);
+		Assertions.assertNotEquals(caller, result[2]);
+	}
+
+	@Test
+	public void authentifiedAsTest_asyncMethodRunsAsSystem() throws Exception {
+		AuthenticationUtil.setFullyAuthenticatedUser("test");
+
+		Assertions.assertEquals(AuthenticationUtil.SYSTEM_USER_NAME,
+				service.getRunAsUser().get(5, TimeUnit.SECONDS));
+		Assertions.assertEquals("test", AuthenticationUtil.getRunAsUser());
+	}
+}
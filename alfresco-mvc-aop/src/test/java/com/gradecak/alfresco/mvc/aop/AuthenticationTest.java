@@ -16,10 +16,19 @@
 
 package com.gradecak.alfresco.mvc.aop;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.alfresco.repo.security.authentication.AuthenticationException;
 import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.alfresco.repo.transaction.AlfrescoTransactionSupport;
+import org.alfresco.repo.transaction.AlfrescoTransactionSupport.TxnReadState;
 import org.alfresco.service.ServiceRegistry;
 import org.alfresco.service.cmr.repository.NodeRef;
 import org.alfresco.service.cmr.repository.NodeService;
@@ -31,6 +40,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -125,4 +135,65 @@ public class AuthenticationTest {
 
 		service.getNamePropertyAsAdmin(nodeRef);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void authentifiedAsUser_checksCachedWithinTransaction() {
+		when(authorityService.hasGuestAuthority()).thenReturn(false);
+		AuthenticationUtil.setFullyAuthenticatedUser("test");
+
+		Map<Object, Object> resources = new HashMap<>();
+		try (MockedStatic<AlfrescoTransactionSupport> support = mockStatic(AlfrescoTransactionSupport.class)) {
+			support.when(AlfrescoTransactionSupport::getTransactionReadState).thenReturn(TxnReadState.TXN_READ_WRITE);
+			support.when(() -> AlfrescoTransactionSupport.getResource(any()))
+					.thenAnswer(invocation -> resources.get(invocation.getArgument(0)));
+			support.when(() -> AlfrescoTransactionSupport.bindResource(any(), any()))
+					.thenAnswer(invocation -> resources.put(invocation.getArgument(0), invocation.getArgument(1)));
+
+			service.getNamePropertyAsUser(nodeRef);
+			service.getNamePropertyAsUser(nodeRef);
+			service.getNamePropertyAsDefault(nodeRef);
+			Assertions.assertThrows(AuthenticationException.class, () -> {
+				service.getNamePropertyAsAdmin(nodeRef);
+			});
+
+			// another run as user is checked on its own
+			AuthenticationUtil.runAs(() -> service.getNamePropertyAsUser(nodeRef), "other");
+		}
+
+		verify(authenticationService, times(5)).getCurrentTicket();
+		verify(authorityService, times(2)).hasGuestAuthority();
+		verify(authorityService, times(1)).hasAdminAuthority();
+	}
+
+	@Test
+	public void authentifiedAsUser_ticketChangedWithinTransaction_checkedAgain() {
+		when(authorityService.hasGuestAuthority()).thenReturn(false);
+		AuthenticationUtil.setFullyAuthenticatedUser("test");
+
+		Map<Object, Object> resources = new HashMap<>();
+		try (MockedStatic<AlfrescoTransactionSupport> support = mockStatic(AlfrescoTransactionSupport.class)) {
+			support.when(AlfrescoTransactionSupport::getTransactionReadState).thenReturn(TxnReadState.TXN_READ_WRITE);
+			support.when(() -> AlfrescoTransactionSupport.getResource(any()))
+					.thenAnswer(invocation -> resources.get(invocation.getArgument(0)));
+			support.when(() -> AlfrescoTransactionSupport.bindResource(any(), any()))
+					.thenAnswer(invocation -> resources.put(invocation.getArgument(0), invocation.getArgument(1)));
+
+			service.getNamePropertyAsUser(nodeRef);
+
+			// re-authenticated as a guest
+			when(authenticationService.getCurrentTicket()).thenReturn("guest-ticket");
+			when(authorityService.hasGuestAuthority()).thenReturn(true);
+			Assertions.assertThrows(AuthenticationException.class, () -> {
+				service.getNamePropertyAsUser(nodeRef);
+			});
+
+			// logged out
+			when(authenticationService.getCurrentTicket()).thenReturn(null);
+			Assertions.assertThrows(AuthenticationException.class, () -> {
+				service.getNamePropertyAsUser(nodeRef);
+			});
+		}
+
+		verify(authorityService, times(2)).hasGuestAuthority();
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.alfresco.repo.transaction.RetryingTransactionHelper;
+import org.alfresco.repo.transaction.RetryingTransactionHelper.RetryingTransactionCallback;
+import org.alfresco.service.ServiceRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(value = { "classpath:test-aop-context.xml" })
+public class BatchTest {
+
+	@Mock
+	private RetryingTransactionHelper retryingTransactionHelper;
+
+	@Autowired
+	private ServiceRegistry serviceRegistry;
+
+	@Autowired
+	@Qualifier(AlfrescoBatchExecutor.BEAN_NAME)
+	private AlfrescoBatchExecutor batchExecutor;
+
+	private List<Integer> items = IntStream.range(0, 250).boxed().collect(Collectors.toList());
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+
+		when(serviceRegistry.getRetryingTransactionHelper()).thenReturn(retryingTransactionHelper);
+		when(retryingTransactionHelper.doInTransaction(any(RetryingTransactionCallback.class), anyBoolean(),
+				anyBoolean())).thenAnswer(invocation -> {
+					try {
+						return ((RetryingTransactionCallback<Object>) invocation.getArgument(0)).execute();
+					} catch (RuntimeException e) {
+						throw e;
+					} catch (Throwable e) {
+						throw new RuntimeException(e);
+					}
+				});
+
+		AuthenticationUtil.clearCurrentSecurityContext();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void when_itemsAreProcessed_expect_oneTransactionPerChunk() throws Exception {
+		Set<Integer> processed = ConcurrentHashMap.newKeySet();
+		AtomicInteger progress = new AtomicInteger();
+
+		AlfrescoBatchResult result = batchExecutor.execute(items, 100, 3, processed::add,
+				p -> progress.incrementAndGet());
+
+		Assertions.assertEquals(250, processed.size());
+		Assertions.assertEquals(250, result.getProcessedItems());
+		Assertions.assertEquals(3, result.getProcessedChunks());
+		Assertions.assertEquals(3, progress.get());
+		Assertions.assertFalse(result.hasFailures());
+		verify(retryingTransactionHelper, times(3)).doInTransaction(any(RetryingTransactionCallback.class), eq(false),
+				eq(true));
+	}
+
+	@Test
+	public void when_callerRunsAs_expect_workersRunAsCaller() throws Exception {
+		Set<String> users = ConcurrentHashMap.newKeySet();
+
+		AlfrescoBatchResult result = AuthenticationUtil.runAs(
+				() -> batchExecutor.execute(items, item -> users.add(AuthenticationUtil.getRunAsUser())), "batchUser");
+
+		Assertions.assertEquals(250, result.getProcessedItems());
+		Assertions.assertEquals(Set.of("batchUser"), users);
+	}
+
+	@Test
+	public void when_chunkFails_expect_chunkRetriedAndReported() throws Exception {
+		AtomicInteger failures = new AtomicInteger();
+
+		AlfrescoBatchResult result = batchExecutor.execute(items, 100, 2, item -> {
+			// the first chunk fails once, the second one always
+			if ((item == 5 && failures.getAndIncrement() == 0) || item == 150) {
+				throw new IllegalStateException("failure " + item);
+			}
+		}, null);
+
+		Assertions.assertEquals(150, result.getProcessedItems());
+		Assertions.assertEquals(100, result.getFailedItems());
+		Assertions.assertEquals(2, result.getRetriedChunks());
+		Assertions.assertEquals(1, result.getFailedChunks());
+		Assertions.assertEquals(1, result.getFailures().get(0).getIndex());
+		Assertions.assertEquals(100, result.getFailures().get(0).getItems().size());
+	}
+
+	@Test
+	public void when_inputFails_expect_workerFailureReported() throws Exception {
+		Iterable<Integer> failingItems = () -> new Iterator<Integer>() {
+			private final Iterator<Integer> delegate = items.iterator();
+
+			@Override
+			public boolean hasNext() {
+				return delegate.hasNext();
+			}
+
+			@Override
+			public Integer next() {
+				Integer item = delegate.next();
+				if (item == 120) {
+					throw new IllegalStateException("input failure");
+				}
+				return item;
+			}
+		};
+
+		AlfrescoBatchResult result = batchExecutor.execute(failingItems, 100, 2, item -> {
+		}, null);
+
+		Assertions.assertEquals(100, result.getProcessedItems());
+		Assertions.assertTrue(result.hasFailures());
+		Assertions.assertEquals(1, result.getWorkerFailures().size());
+		Assertions.assertEquals("input failure", result.getWorkerFailures().get(0).getMessage());
+	}
+
+	@Test
+	public void when_progressListenerFails_expect_workerFailureReported() throws Exception {
+		AlfrescoBatchResult result = batchExecutor.execute(items, 100, 1, item -> {
+		}, progress -> {
+			throw new IllegalStateException("listener failure");
+		});
+
+		Assertions.assertEquals(100, result.getProcessedItems());
+		Assertions.assertTrue(result.hasFailures());
+		Assertions.assertEquals("listener failure", result.getWorkerFailures().get(0).getMessage());
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.alfresco.repo.transaction.RetryingTransactionHelper;
+import org.alfresco.repo.transaction.RetryingTransactionHelper.RetryingTransactionCallback;
+import org.alfresco.service.ServiceRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.gradecak.alfresco.mvc.service.ClassLevelService;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(value = { "classpath:test-aop-context.xml" })
+public class ClassLevelTest {
+
+	@Mock
+	private RetryingTransactionHelper retryingTransactionHelper;
+
+	@Autowired
+	private ServiceRegistry serviceRegistry;
+
+	@Autowired
+	private ClassLevelService service;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+
+		when(serviceRegistry.getRetryingTransactionHelper()).thenReturn(retryingTransactionHelper);
+		when(retryingTransactionHelper.doInTransaction(any(RetryingTransactionCallback.class), anyBoolean(),
+				anyBoolean())).thenAnswer(
+						invocation -> ((RetryingTransactionCallback<Object>) invocation.getArgument(0)).execute());
+
+		Assertions.assertTrue(AopUtils.isAopProxy(service));
+		AuthenticationUtil.clearCurrentSecurityContext();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void when_classIsAnnotated_expect_publicMethodsAdvised() {
+		Assertions.assertEquals(AuthenticationUtil.SYSTEM_USER_NAME, service.runAsFromClass());
+		verify(retryingTransactionHelper).doInTransaction(any(RetryingTransactionCallback.class), eq(true), eq(false));
+	}
+
+	@Test
+	public void when_methodIsAnnotated_expect_methodAnnotationWins() {
+		Assertions.assertEquals("user", service.runAsFromMethod());
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.transaction.SystemException;
+
+import org.alfresco.repo.security.authentication.AuthenticationException;
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.alfresco.repo.transaction.RetryingTransactionHelper;
+import org.alfresco.repo.transaction.RetryingTransactionHelper.RetryingTransactionCallback;
+import org.alfresco.service.ServiceRegistry;
+import org.alfresco.service.cmr.repository.NodeRef;
+import org.alfresco.service.cmr.repository.NodeService;
+import org.alfresco.service.cmr.repository.StoreRef;
+import org.alfresco.service.cmr.security.AuthorityService;
+import org.alfresco.service.cmr.security.MutableAuthenticationService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.gradecak.alfresco.mvc.service.AuthenticationService;
+import com.gradecak.alfresco.mvc.service.RunAsService;
+import com.gradecak.alfresco.mvc.service.TransactionalService;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(value = { "classpath:test-aop-fused-context.xml" })
+public class FusedAdviceTest {
+
+	@Mock
+	private MutableAuthenticationService authenticationService;
+
+	@Mock
+	private AuthorityService authorityService;
+
+	@Mock
+	private NodeService nodeService;
+
+	@Mock
+	private RetryingTransactionHelper retryingTransactionHelper;
+
+	@Autowired
+	private ServiceRegistry serviceRegistry;
+
+	@Autowired
+	private AuthenticationService authenticationServiceBean;
+
+	@Autowired
+	private RunAsService runAsService;
+
+	@Autowired
+	private TransactionalService transactionalService;
+
+	private NodeRef nodeRef = new NodeRef(StoreRef.STORE_REF_WORKSPACE_SPACESSTORE, "aaa");
+	private List<String> transactionRunAsUsers = new ArrayList<>();
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+
+		when(serviceRegistry.getAuthenticationService()).thenReturn(authenticationService);
+		when(serviceRegistry.getAuthorityService()).thenReturn(authorityService);
+		when(serviceRegistry.getNodeService()).thenReturn(nodeService);
+		when(serviceRegistry.getRetryingTransactionHelper()).thenReturn(retryingTransactionHelper);
+		when(authenticationService.getCurrentTicket()).thenReturn("ticket");
+		when(authorityService.hasGuestAuthority()).thenReturn(true);
+		when(retryingTransactionHelper.doInTransaction(any(RetryingTransactionCallback.class), anyBoolean(),
+				anyBoolean())).thenAnswer(invocation -> {
+					transactionRunAsUsers.add(AuthenticationUtil.getRunAsUser());
+					return ((RetryingTransactionCallback<Object>) invocation.getArgument(0)).execute();
+				});
+
+		AuthenticationUtil.clearCurrentSecurityContext();
+	}
+
+	@Test
+	public void when_fusedInterceptors_expect_singleAdvisor() {
+		for (Object service : new Object[] { authenticationServiceBean, runAsService, transactionalService }) {
+			Assertions.assertTrue(AopUtils.isAopProxy(service));
+			Advisor[] advisors = ((Advised) service).getAdvisors();
+			Assertions.assertEquals(1, advisors.length);
+			Assertions.assertTrue(advisors[0].getAdvice() instanceof AlfrescoFusedAdvice);
+		}
+	}
+
+	@Test
+	public void when_authenticatedAsGuest_expect_userAuthenticationRequired() {
+		Assertions.assertThrows(AuthenticationException.class, () -> {
+			authenticationServiceBean.getNamePropertyAsUser(nodeRef);
+		});
+		authenticationServiceBean.getNamePropertyAsNone(nodeRef);
+	}
+
+	@Test
+	public void when_runAsSystem_expect_systemUserDuringTheCall() {
+		runAsService.getNamePropertyAsSystem(nodeRef);
+		Assertions.assertNull(AuthenticationUtil.getRunAsUser());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void when_transactional_expect_transactionAttributes() throws SystemException {
+		transactionalService.transactioReadOnlyWithPropagationRequiresNew();
+		verify(retryingTransactionHelper).doInTransaction(any(RetryingTransactionCallback.class), eq(true), eq(true));
+	}
+
+	@Test
+	public void when_transactionAndRunAs_expect_transactionInsideRunAs() {
+		// same nesting as the separate advisors, the transaction is committed as the run as user
+		Assertions.assertEquals(AuthenticationUtil.SYSTEM_USER_NAME, transactionalService.transactionAsSystem());
+		Assertions.assertEquals(1, transactionRunAsUsers.size());
+		Assertions.assertEquals(AuthenticationUtil.SYSTEM_USER_NAME, transactionRunAsUsers.get(0));
+	}
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.aop;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PackageMatcherTest {
+
+	@Test
+	public void when_plainPackage_expect_exactMatchOnly() {
+		PackageMatcher matcher = new PackageMatcher(List.of("com.acme.service"));
+		Assertions.assertTrue(matcher.matches("com.acme.service"));
+		Assertions.assertFalse(matcher.matches("com.acme.service.impl"));
+		Assertions.assertFalse(matcher.matches("com.acme"));
+		Assertions.assertFalse(matcher.matches("com.acme.services"));
+		Assertions.assertFalse(matcher.matches(""));
+	}
+
+	@Test
+	public void when_anySegmentsPattern_expect_subpackagesMatched() {
+		PackageMatcher matcher = new PackageMatcher(List.of("com.acme.service.**"));
+		Assertions.assertTrue(matcher.matches("com.acme.service"));
+		Assertions.assertTrue(matcher.matches("com.acme.service.impl"));
+		Assertions.assertTrue(matcher.matches("com.acme.service.impl.internal"));
+		Assertions.assertFalse(matcher.matches("com.acme"));
+		Assertions.assertFalse(matcher.matches("com.acme.web"));
+	}
+
+	@Test
+	public void when_segmentPatterns_expect_singleSegmentMatched() {
+		PackageMatcher matcher = new PackageMatcher(List.of("com.*.service", "org.acme.**.dao", "net.acme.serv*"));
+		Assertions.assertTrue(matcher.matches("com.acme.service"));
+		Assertions.assertFalse(matcher.matches("com.acme.impl.service"));
+		Assertions.assertTrue(matcher.matches("org.acme.dao"));
+		Assertions.assertTrue(matcher.matches("org.acme.a.b.dao"));
+		Assertions.assertFalse(matcher.matches("org.acme.a.b"));
+		Assertions.assertTrue(matcher.matches("net.acme.services"));
+		Assertions.assertFalse(matcher.matches("net.acme.web"));
+	}
+
+	@Test
+	public void when_severalPackages_expect_anyMatched() {
+		PackageMatcher matcher = new PackageMatcher(List.of("com.acme.a", "com.acme.b", "com.other.**"));
+		Assertions.assertTrue(matcher.matches("com.acme.a"));
+		Assertions.assertTrue(matcher.matches("com.acme.b"));
+		Assertions.assertTrue(matcher.matches("com.other.x"));
+		Assertions.assertFalse(matcher.matches("com.acme.c"));
+		Assertions.assertFalse(new PackageMatcher(List.of()).matches("com.acme.a"));
+	}
+}
@@ -17,25 +17,41 @@
 package com.gradecak.alfresco.mvc.aop;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import jakarta.transaction.SystemException;
+import jakarta.transaction.UserTransaction;
 
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.alfresco.repo.transaction.AlfrescoTransactionSupport;
+import org.alfresco.repo.transaction.AlfrescoTransactionSupport.TxnReadState;
 import org.alfresco.repo.transaction.RetryingTransactionHelper;
 import org.alfresco.repo.transaction.RetryingTransactionHelper.RetryingTransactionCallback;
 import org.alfresco.service.ServiceRegistry;
+import org.alfresco.service.transaction.TransactionService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.IllegalTransactionStateException;
 
 import com.gradecak.alfresco.mvc.service.TransactionalService;
 
@@ -46,6 +62,12 @@ public class TransactionalTest {
 	@Mock
 	private RetryingTransactionHelper retryingTransactionHelper;
 
+	@Mock
+	private RetryingTransactionHelper tunedRetryingTransactionHelper;
+
+	@Mock
+	private TransactionService transactionService;
+
 	@Autowired
 	private ServiceRegistry serviceRegistry;
 
@@ -57,6 +79,8 @@ public class TransactionalTest {
 		MockitoAnnotations.initMocks(this);
 
 		when(serviceRegistry.getRetryingTransactionHelper()).thenReturn(retryingTransactionHelper);
+		when(serviceRegistry.getTransactionService()).thenReturn(transactionService);
+		when(transactionService.getRetryingTransactionHelper()).thenReturn(tunedRetryingTransactionHelper);
 
 		Assertions.assertTrue(AopUtils.isAopProxy(service));
 	}
@@ -81,4 +105,107 @@ public class TransactionalTest {
 		service.transactioReadOnlyWithPropagationRequiresNew();
 		verify(retryingTransactionHelper).doInTransaction(any(RetryingTransactionCallback.class), eq(true), eq(true));
 	}
-}
\ No newline at end of file
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void txWithRetries_dedicatedHelperCached() {
+		service.transactionWithRetries();
+		service.transactionWithRetries();
+
+		verify(transactionService).getRetryingTransactionHelper();
+		verify(tunedRetryingTransactionHelper).setMaxRetries(2);
+		verify(tunedRetryingTransactionHelper).setMinRetryWaitMs(10);
+		verify(tunedRetryingTransactionHelper, never()).setMaxRetryWaitMs(anyInt());
+		verify(tunedRetryingTransactionHelper, never()).setRetryWaitIncrementMs(anyInt());
+		verify(retryingTransactionHelper, never()).doInTransaction(any(RetryingTransactionCallback.class),
+				anyBoolean(), anyBoolean());
+	}
+
+	@Test
+	public void txSupports_noTransactionCreated() {
+		Assertions.assertEquals("supports", service.transactionSupports());
+		verifyNoInteractions(retryingTransactionHelper);
+	}
+
+	@Test
+	public void txMandatory_existingTransactionRequired() {
+		Assertions.assertThrows(IllegalTransactionStateException.class, () -> service.transactionMandatory());
+
+		try (MockedStatic<AlfrescoTransactionSupport> support = mockStatic(AlfrescoTransactionSupport.class)) {
+			support.when(AlfrescoTransactionSupport::getTransactionReadState).thenReturn(TxnReadState.TXN_READ_WRITE);
+			Assertions.assertEquals("mandatory", service.transactionMandatory());
+		}
+		verifyNoInteractions(retryingTransactionHelper);
+	}
+
+	@Test
+	public void txNever_existingTransactionRejected() {
+		Assertions.assertEquals("never", service.transactionNever());
+
+		try (MockedStatic<AlfrescoTransactionSupport> support = mockStatic(AlfrescoTransactionSupport.class)) {
+			support.when(AlfrescoTransactionSupport::getTransactionReadState).thenReturn(TxnReadState.TXN_READ_ONLY);
+			Assertions.assertThrows(IllegalTransactionStateException.class, () -> service.transactionNever());
+		}
+		verifyNoInteractions(retryingTransactionHelper);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void txInsideReadWriteTransaction_transactionJoined() throws SystemException {
+		try (MockedStatic<AlfrescoTransactionSupport> support = mockStatic(AlfrescoTransactionSupport.class)) {
+			support.when(AlfrescoTransactionSupport::getTransactionReadState).thenReturn(TxnReadState.TXN_READ_WRITE);
+			service.transactionWriteWithoutPropagation();
+			service.transactioReadOnlyWithPropagationRequired();
+			verifyNoInteractions(retryingTransactionHelper);
+
+			service.transactioReadOnlyWithPropagationRequiresNew();
+			verify(retryingTransactionHelper).doInTransaction(any(RetryingTransactionCallback.class), eq(true),
+					eq(true));
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void txInsideReadOnlyTransaction_onlyReadOnlyJoined() throws SystemException {
+		try (MockedStatic<AlfrescoTransactionSupport> support = mockStatic(AlfrescoTransactionSupport.class)) {
+			support.when(AlfrescoTransactionSupport::getTransactionReadState).thenReturn(TxnReadState.TXN_READ_ONLY);
+			service.transactioReadOnlyWithPropagationRequired();
+			verifyNoInteractions(retryingTransactionHelper);
+
+			service.transactionWriteWithoutPropagation();
+			verify(retryingTransactionHelper).doInTransaction(any(RetryingTransactionCallback.class), eq(false),
+					eq(false));
+		}
+	}
+
+	@Test
+	public void txInsideTransactionFailing_joinedTransactionMarkedRollbackOnly() throws SystemException {
+		UserTransaction userTransaction = mock(UserTransaction.class);
+		try (MockedStatic<AlfrescoTransactionSupport> support = mockStatic(AlfrescoTransactionSupport.class);
+				MockedStatic<RetryingTransactionHelper> helper = mockStatic(RetryingTransactionHelper.class)) {
+			support.when(AlfrescoTransactionSupport::getTransactionReadState).thenReturn(TxnReadState.TXN_READ_WRITE);
+			helper.when(RetryingTransactionHelper::getActiveUserTransaction).thenReturn(userTransaction);
+
+			service.transactionWriteWithoutPropagation();
+			verify(userTransaction, never()).setRollbackOnly();
+
+			Assertions.assertThrows(IllegalStateException.class, () -> service.transactionFailing());
+			verify(userTransaction).setRollbackOnly();
+			verifyNoInteractions(retryingTransactionHelper);
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void txAndRunAs_transactionInsideRunAs() throws SystemException {
+		List<String> transactionRunAsUsers = new ArrayList<>();
+		when(retryingTransactionHelper.doInTransaction(any(RetryingTransactionCallback.class), anyBoolean(),
+				anyBoolean())).thenAnswer(invocation -> {
+					transactionRunAsUsers.add(AuthenticationUtil.getRunAsUser());
+					return ((RetryingTransactionCallback<Object>) invocation.getArgument(0)).execute();
+				});
+
+		Assertions.assertEquals(AuthenticationUtil.SYSTEM_USER_NAME, service.transactionAsSystem());
+		Assertions.assertEquals(List.of(AuthenticationUtil.SYSTEM_USER_NAME), transactionRunAsUsers);
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.slf4j.MDC;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.gradecak.alfresco.mvc.annotation.AlfrescoRunAs;
+import com.gradecak.alfresco.mvc.aop.AlfrescoContextExecutor;
+
+@Service
+public class AsyncService {
+
+	@Async(AlfrescoContextExecutor.BEAN_NAME)
+	public CompletableFuture<String> getFullyAuthenticatedUser() {
+		return CompletableFuture.completedFuture(
+				AuthenticationUtil.getFullyAuthenticatedUser() + "|" + MDC.get("test") + "|" + Thread.currentThread().getName());
+	}
+
+	@Async(AlfrescoContextExecutor.BEAN_NAME)
+	@AlfrescoRunAs(AuthenticationUtil.SYSTEM_USER_NAME)
+	public CompletableFuture<String> getRunAsUser() {
+		return CompletableFuture.completedFuture(AuthenticationUtil.getRunAsUser());
+	}
+}
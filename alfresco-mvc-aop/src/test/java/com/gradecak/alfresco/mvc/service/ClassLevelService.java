@@ -0,0 +1,37 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.service;
+
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
+import org.springframework.stereotype.Service;
+
+import com.gradecak.alfresco.mvc.annotation.AlfrescoRunAs;
+import com.gradecak.alfresco.mvc.annotation.AlfrescoTransaction;
+
+@Service
+@AlfrescoRunAs(AuthenticationUtil.SYSTEM_USER_NAME)
+@AlfrescoTransaction(readOnly = true)
+public class ClassLevelService {
+
+	public String runAsFromClass() {
+		return AuthenticationUtil.getRunAsUser();
+	}
+
+	@AlfrescoRunAs("user")
+	public String runAsFromMethod() {
+		return AuthenticationUtil.getRunAsUser();
+	}
+}
@@ -19,11 +19,13 @@ package com.gradecak.alfresco.mvc.service;
 import jakarta.transaction.SystemException;
 
 import org.alfresco.model.ContentModel;
+import org.alfresco.repo.security.authentication.AuthenticationUtil;
 import org.alfresco.service.ServiceRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 
+import com.gradecak.alfresco.mvc.annotation.AlfrescoRunAs;
 import com.gradecak.alfresco.mvc.annotation.AlfrescoTransaction;
 
 @Service
@@ -46,4 +48,35 @@ public class TransactionalService {
 	public String transactioReadOnlyWithPropagationRequiresNew() throws SystemException {
 		return (String) serviceRegistry.getNodeService().getProperty(null, ContentModel.PROP_NAME);
 	}
+
+	@AlfrescoTransaction(maxRetries = 2, minRetryWaitMs = 10)
+	public String transactionWithRetries() {
+		return (String) serviceRegistry.getNodeService().getProperty(null, ContentModel.PROP_NAME);
+	}
+
+	@AlfrescoTransaction(propagation = Propagation.SUPPORTS)
+	public String transactionSupports() {
+		return "supports";
+	}
+
+	@AlfrescoTransaction(propagation = Propagation.MANDATORY)
+	public String transactionMandatory() {
+		return "mandatory";
+	}
+
+	@AlfrescoTransaction(propagation = Propagation.NEVER)
+	public String transactionNever() {
+		return "never";
+	}
+
+	@AlfrescoTransaction
+	public String transactionFailing() {
+		throw new IllegalStateException("failing");
+	}
+
+	@AlfrescoTransaction
+	@AlfrescoRunAs(AuthenticationUtil.SYSTEM_USER_NAME)
+	public String transactionAsSystem() {
+		return AuthenticationUtil.getRunAsUser();
+	}
 }
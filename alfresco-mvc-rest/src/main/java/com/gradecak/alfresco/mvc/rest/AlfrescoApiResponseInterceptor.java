@@ -16,14 +16,19 @@
 
 package com.gradecak.alfresco.mvc.rest;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import jakarta.servlet.http.HttpServletRequest;
 
 import org.alfresco.rest.framework.resource.parameters.Params;
 import org.alfresco.rest.framework.resource.parameters.Params.RecognizedParams;
 import org.alfresco.rest.framework.webscripts.ResourceWebScriptHelper;
+import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.extensions.webscripts.WebScriptRequest;
-import org.springframework.extensions.webscripts.servlet.WebScriptServletRequest;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -31,9 +36,11 @@ import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.util.WebUtils;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 
 import com.gradecak.alfresco.mvc.rest.annotation.AlfrescoRestResponse;
+import com.gradecak.alfresco.mvc.rest.jackson.Jackson2StreamingHttpMessageConverter;
 import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript.WebscriptRequestWrapper;
 
 /**
@@ -44,8 +51,16 @@ import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript.WebscriptRequestW
 @ControllerAdvice
 public class AlfrescoApiResponseInterceptor implements ResponseBodyAdvice<Object> {
 
+	/**
+	 * the request attribute holding the {@link Params} of the current request
+	 */
+	public static final String PARAMS_ATTRIBUTE = AlfrescoApiResponseInterceptor.class.getName() + ".PARAMS";
+
+	private static final AlfrescoRecognizedParamsExtractor PARAMS_EXTRACTOR = new AlfrescoRecognizedParamsExtractor();
+
 	private final ResourceWebScriptHelper webscriptHelper;
-	private final boolean globalAlfrescoResponse;;
+	private final boolean globalAlfrescoResponse;
+	private final Map<AnnotatedElementKey, Boolean> alfrescoResponseCache = new ConcurrentHashMap<>(256);
 
 	public AlfrescoApiResponseInterceptor(final ResourceWebScriptHelper webscriptHelper) {
 		this(webscriptHelper, false);
@@ -68,40 +83,66 @@ public class AlfrescoApiResponseInterceptor implements ResponseBodyAdvice<Object
 		}
 
 		HttpServletRequest r = ((ServletServerHttpRequest) request).getServletRequest();
+		WebscriptRequestWrapper wrapper = WebUtils.getNativeRequest(r, WebscriptRequestWrapper.class);
 
-		if (!(r instanceof WebscriptRequestWrapper)) {
+		if (wrapper == null) {
 			throw new RuntimeException(
 					"the request must be an instance of com.gradecak.alfresco.mvc.webscript.DispatcherWebscript.WebscriptRequestWrapper. It seems the request is not coming from Alfresco @MVC");
 		}
 
-		WebScriptServletRequest a = ((WebscriptRequestWrapper) r).getWebScriptServletRequest();
+		Params params = getRequestParameters(wrapper);
 
-		return webscriptHelper.processAdditionsToTheResponse(null, null, null, getDefaultParameters(a), body);
+		if (StreamingPagedCollection.isStreamingBody(body)) {
+			return new StreamingPagedCollection(body, params.getPaging(),
+					entry -> webscriptHelper.processAdditionsToTheResponse(null, null, null, params, entry));
+		}
+
+		return webscriptHelper.processAdditionsToTheResponse(null, null, null, params, body);
 	}
 
 	@Override
 	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
-		if (converterType.isAssignableFrom(MappingJackson2HttpMessageConverter.class)) {
-			boolean useAlfrescoResponse = globalAlfrescoResponse;
-
-			if (!useAlfrescoResponse) {
-				AlfrescoRestResponse methodAnnotation = returnType.getMethodAnnotation(AlfrescoRestResponse.class);
-				if (methodAnnotation == null) {
-					methodAnnotation = returnType.getContainingClass().getAnnotation(AlfrescoRestResponse.class);
-				}
-
-				if (methodAnnotation != null) {
-					useAlfrescoResponse = true;
-				}
-			}
-			return useAlfrescoResponse;
+		if (converterType.isAssignableFrom(MappingJackson2HttpMessageConverter.class)
+				|| Jackson2StreamingHttpMessageConverter.class.isAssignableFrom(converterType)) {
+			return globalAlfrescoResponse || isAlfrescoResponse(returnType);
 		}
 		return false;
 	}
 
+	/**
+	 * the decision is cached per handler method and containing class, the
+	 * annotation might be used as a meta-annotation
+	 */
+	private boolean isAlfrescoResponse(MethodParameter returnType) {
+		Method method = returnType.getMethod();
+		Class<?> containingClass = returnType.getContainingClass();
+		if (method == null) {
+			return AnnotatedElementUtils.hasAnnotation(containingClass, AlfrescoRestResponse.class);
+		}
+
+		return alfrescoResponseCache.computeIfAbsent(new AnnotatedElementKey(method, containingClass),
+				key -> AnnotatedElementUtils.hasAnnotation(method, AlfrescoRestResponse.class)
+						|| AnnotatedElementUtils.hasAnnotation(containingClass, AlfrescoRestResponse.class));
+	}
+
+	/**
+	 * @return the parameters of the request, extracted only once per request and
+	 *         then shared through the {@link #PARAMS_ATTRIBUTE} request attribute
+	 */
+	static public Params getRequestParameters(WebscriptRequestWrapper request) {
+		Object params = request.getAttribute(PARAMS_ATTRIBUTE);
+		if (params instanceof Params) {
+			return (Params) params;
+		}
+
+		Params requestParams = getDefaultParameters(request.getWebScriptServletRequest());
+		request.setAttribute(PARAMS_ATTRIBUTE, requestParams);
+		return requestParams;
+	}
+
 	static public Params getDefaultParameters(WebScriptRequest wsr) {
 		if (wsr != null) {
-			final RecognizedParams params = new AlfrescoRecognizedParamsExtractor().getRecognizedParams(wsr);
+			final RecognizedParams params = PARAMS_EXTRACTOR.getRecognizedParams(wsr);
 			return Params.valueOf(params, null, null, wsr);
 		}
 		Params parameters = Params.valueOf("", null, null);
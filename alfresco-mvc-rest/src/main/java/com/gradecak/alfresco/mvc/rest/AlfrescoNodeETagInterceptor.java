@@ -0,0 +1,77 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.rest;
+
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.alfresco.service.cmr.repository.NodeRef;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.gradecak.alfresco.mvc.rest.annotation.AlfrescoNodeETag;
+import com.gradecak.alfresco.mvc.rest.jackson.Jackson2NodeRefDeserializer;
+
+/**
+ * answers conditional requests of handlers annotated with
+ * {@link AlfrescoNodeETag} before the handler is invoked, a 304 (or 412) is
+ * sent without calling the controller at all
+ */
+public class AlfrescoNodeETagInterceptor implements HandlerInterceptor {
+
+	private final NodeRefCacheValidator nodeRefCacheValidator;
+	private final Jackson2NodeRefDeserializer nodeRefConverter = new Jackson2NodeRefDeserializer();
+
+	public AlfrescoNodeETagInterceptor(final NodeRefCacheValidator nodeRefCacheValidator) {
+		this.nodeRefCacheValidator = nodeRefCacheValidator;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+			throws Exception {
+		if (!(handler instanceof HandlerMethod)) {
+			return true;
+		}
+
+		AlfrescoNodeETag nodeETag = AnnotatedElementUtils.findMergedAnnotation(((HandlerMethod) handler).getMethod(),
+				AlfrescoNodeETag.class);
+		if (nodeETag == null) {
+			return true;
+		}
+
+		NodeRef nodeRef = nodeRefConverter.convert(getNodeRefValue(request, nodeETag.value()));
+		if (nodeRef == null) {
+			return true;
+		}
+
+		return !nodeRefCacheValidator.checkNotModified(new ServletWebRequest(request, response), nodeRef);
+	}
+
+	@SuppressWarnings("unchecked")
+	private String getNodeRefValue(final HttpServletRequest request, final String name) {
+		Map<String, String> uriVariables = (Map<String, String>) request
+				.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		if (uriVariables != null && uriVariables.containsKey(name)) {
+			return uriVariables.get(name);
+		}
+		return request.getParameter(name);
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.rest;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Map;
+
+import org.alfresco.model.ContentModel;
+import org.alfresco.service.ServiceRegistry;
+import org.alfresco.service.cmr.repository.NodeRef;
+import org.alfresco.service.namespace.QName;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.Assert;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * computes the HTTP validators (ETag and Last-Modified) of a node. The ETag is
+ * derived from the modified date and, for versioned nodes, from the version
+ * label. A node without modified date has no validators and is never reported
+ * as not modified.
+ * <p>
+ * Usage in a controller:
+ * 
+ * <pre>
+ * if (nodeRefCacheValidator.checkNotModified(webRequest, nodeRef)) {
+ * 	return null;
+ * }
+ * </pre>
+ */
+public class NodeRefCacheValidator {
+
+	private final ServiceRegistry serviceRegistry;
+
+	public NodeRefCacheValidator(final ServiceRegistry serviceRegistry) {
+		Assert.notNull(serviceRegistry, "[Assertion failed] - serviceRegistry must not be null");
+		this.serviceRegistry = serviceRegistry;
+	}
+
+	/**
+	 * @return true if the client representation of the node is still valid, in
+	 *         that case the response status has already been set (304 or 412) and
+	 *         the request processing should stop
+	 */
+	public boolean checkNotModified(final WebRequest request, final NodeRef nodeRef) {
+		Map<QName, Serializable> properties = serviceRegistry.getNodeService().getProperties(nodeRef);
+		long lastModified = getLastModified(properties);
+		if (lastModified < 0) {
+			return false;
+		}
+		return request.checkNotModified(getETag(properties), lastModified);
+	}
+
+	/**
+	 * @return a response builder carrying the validators of the node
+	 */
+	public ResponseEntity.BodyBuilder ok(final NodeRef nodeRef) {
+		Map<QName, Serializable> properties = serviceRegistry.getNodeService().getProperties(nodeRef);
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+
+		long lastModified = getLastModified(properties);
+		if (lastModified >= 0) {
+			builder.eTag(getETag(properties)).lastModified(lastModified);
+		}
+		return builder;
+	}
+
+	/**
+	 * @return the ETag of the node or null if the node has no modified date
+	 */
+	public String getETag(final NodeRef nodeRef) {
+		return getETag(serviceRegistry.getNodeService().getProperties(nodeRef));
+	}
+
+	public long getLastModified(final NodeRef nodeRef) {
+		return getLastModified(serviceRegistry.getNodeService().getProperties(nodeRef));
+	}
+
+	protected String getETag(final Map<QName, Serializable> properties) {
+		long lastModified = getLastModified(properties);
+		if (lastModified < 0) {
+			return null;
+		}
+		Serializable versionLabel = properties != null ? properties.get(ContentModel.PROP_VERSION_LABEL) : null;
+
+		StringBuilder eTag = new StringBuilder("\"").append(Long.toHexString(lastModified));
+		if (versionLabel != null) {
+			eTag.append('-').append(versionLabel);
+		}
+		return eTag.append('"').toString();
+	}
+
+	protected long getLastModified(final Map<QName, Serializable> properties) {
+		Serializable modified = properties != null ? properties.get(ContentModel.PROP_MODIFIED) : null;
+		return modified instanceof Date ? ((Date) modified).getTime() : -1;
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.BaseStream;
+
+import org.alfresco.rest.framework.resource.parameters.CollectionWithPagingInfo;
+import org.alfresco.rest.framework.resource.parameters.Paging;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * a lazily consumed collection written with the Alfresco "list" envelope. The
+ * source is expected to start at the requested "skipCount": only "maxItems"
+ * entries are consumed and written as a {@link CollectionWithPagingInfo},
+ * "hasMoreItems" is set when the source holds one more entry. "totalItems" is
+ * only written when the source has been exhausted.
+ */
+public final class StreamingPagedCollection {
+
+	private final Object source;
+	private final Paging paging;
+	private final Function<Object, Object> entryMapper;
+
+	/**
+	 * @param source      a {@link BaseStream} or an {@link Iterator}
+	 * @param paging      the requested paging, no limit when null
+	 * @param entryMapper applied to each entry before it is written
+	 */
+	public StreamingPagedCollection(final Object source, @Nullable final Paging paging,
+			final Function<Object, Object> entryMapper) {
+		Assert.isTrue(isStreamingBody(source), "[Assertion failed] - source must be a Stream or an Iterator");
+		Assert.notNull(entryMapper, "[Assertion failed] - entryMapper must not be null");
+		this.source = source;
+		this.paging = paging;
+		this.entryMapper = entryMapper;
+	}
+
+	public Object getSource() {
+		return source;
+	}
+
+	@Nullable
+	public Paging getPaging() {
+		return paging;
+	}
+
+	public Function<Object, Object> getEntryMapper() {
+		return entryMapper;
+	}
+
+	/**
+	 * @return true if the body is a {@link BaseStream} or an {@link Iterator}
+	 */
+	public static boolean isStreamingBody(@Nullable final Object body) {
+		return body instanceof BaseStream || body instanceof Iterator;
+	}
+}
@@ -29,6 +29,8 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.context.WebApplicationContext;
 
 import com.gradecak.alfresco.mvc.rest.config.AlfrescoRestRegistrar;
+import com.gradecak.alfresco.mvc.webscript.DefaultDispatcherWebscriptExceptionTranslator;
+import com.gradecak.alfresco.mvc.webscript.DispatcherWebscriptExceptionTranslator;
 import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript.ServletConfigOptions;
 
 @Repeatable(EnableAlfrescoMvcRest.class)
@@ -49,4 +51,43 @@ public @interface AlfrescoDispatcherWebscript {
 	boolean inheritGlobalProperties() default false;
 
 	ServletConfigOptions[] servletConfigOptions() default {};
+
+	/**
+	 * caches the resolved handlers per HTTP method, request URI and content
+	 * negotiation headers. Handlers are expected to be singletons.
+	 */
+	boolean handlerCache() default false;
+
+	/**
+	 * the maximum number of cached handlers when {@link #handlerCache()} is
+	 * enabled, the least recently used entries are evicted first
+	 */
+	int handlerCacheSize() default 256;
+
+	/**
+	 * the Cache-Control header set on every response unless the controller sets
+	 * it, an empty value does not set the header. Use for instance
+	 * "private, max-age=60, must-revalidate" together with
+	 * {@link AlfrescoNodeETag} to let clients revalidate.
+	 */
+	String cacheControl() default "no-cache";
+
+	/**
+	 * translates the failures not handled by Spring MVC, the class must have a
+	 * public no-arg constructor
+	 */
+	Class<? extends DispatcherWebscriptExceptionTranslator> exceptionTranslator() default DefaultDispatcherWebscriptExceptionTranslator.class;
+
+	/**
+	 * enables the async request processing, the controllers might then return a
+	 * Callable, a DeferredResult or a CompletableFuture.
+	 * <p>
+	 * <b>This does not free the container threads.</b> The webscript runtime
+	 * expects a completed response once the webscript returns, the webscript
+	 * (container) thread therefore waits for the async result. A Callable
+	 * occupies an executor thread in addition to the blocked container thread:
+	 * use it to run work with a timeout or in parallel within a request, not to
+	 * serve more concurrent requests with the same Tomcat pool.
+	 */
+	boolean asyncSupported() default false;
 }
@@ -0,0 +1,42 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.rest.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.gradecak.alfresco.mvc.rest.AlfrescoNodeETagInterceptor;
+
+/**
+ * 
+ * declares that the response of a handler method is derived from a node, the
+ * ETag and Last-Modified validators of that node are then checked by
+ * {@link AlfrescoNodeETagInterceptor} before the handler is invoked
+ */
+@Target({ ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AlfrescoNodeETag {
+
+	/**
+	 * the name of the path variable or request parameter holding the node
+	 * reference (or only its id for the workspace://SpacesStore)
+	 */
+	String value() default "nodeRef";
+}
@@ -35,4 +35,25 @@ import com.gradecak.alfresco.mvc.rest.config.DefaultAlfrescoMvcServletContextCon
 @Import(AlfrescoRestRegistrar.class)
 public @interface EnableAlfrescoMvcRest {
 	AlfrescoDispatcherWebscript[] value() default @AlfrescoDispatcherWebscript(servletContext = DefaultAlfrescoMvcServletContextConfiguration.class);
+
+	/**
+	 * initializes the dispatcher webscripts in parallel once the Alfresco context
+	 * has been refreshed instead of one after the other on the refresh thread,
+	 * see {@link com.gradecak.alfresco.mvc.webscript.DispatcherWebscriptInitializer}
+	 */
+	boolean parallelInitialization() default false;
+
+	/**
+	 * the maximum number of dispatcher webscripts initialized at the same time when
+	 * {@link #parallelInitialization()} is enabled
+	 */
+	int initializationThreads() default 4;
+
+	/**
+	 * registers a {@link com.gradecak.alfresco.mvc.rest.config.SharedMessageConverters}
+	 * in the Alfresco context, the dispatcher webscripts using the same servlet
+	 * context configuration class then share a single ObjectMapper and message
+	 * converter chain
+	 */
+	boolean sharedMessageConverters() default false;
 }
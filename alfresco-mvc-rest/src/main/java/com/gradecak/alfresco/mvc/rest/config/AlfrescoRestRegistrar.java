@@ -19,7 +19,10 @@ package com.gradecak.alfresco.mvc.rest.config;
 import java.util.Collections;
 import java.util.Map;
 
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.GenericBeanDefinition;
 import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
@@ -34,6 +37,8 @@ import com.gradecak.alfresco.mvc.rest.annotation.AlfrescoDispatcherWebscript;
 import com.gradecak.alfresco.mvc.rest.annotation.EnableAlfrescoMvcRest;
 import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript;
 import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript.ServletConfigOptions;
+import com.gradecak.alfresco.mvc.webscript.DispatcherWebscriptExceptionTranslator;
+import com.gradecak.alfresco.mvc.webscript.DispatcherWebscriptInitializer;
 
 public class AlfrescoRestRegistrar implements ImportBeanDefinitionRegistrar {
 
@@ -63,14 +68,52 @@ public class AlfrescoRestRegistrar implements ImportBeanDefinitionRegistrar {
 		}
 
 		AnnotationAttributes[] dispatcherWebscripts = (AnnotationAttributes[]) attributes.get("value");
+		boolean parallelInitialization = attributes.containsKey("parallelInitialization")
+				&& attributes.getBoolean("parallelInitialization");
 
 		for (AnnotationAttributes dispatcherWebscript : dispatcherWebscripts) {
-			processDispatcherWebscript(dispatcherWebscript, registry);
+			processDispatcherWebscript(dispatcherWebscript, parallelInitialization, registry);
 		}
 
+		if (parallelInitialization) {
+			registerInitializer(attributes.getNumber("initializationThreads"), registry);
+		}
+
+		if (attributes.containsKey("sharedMessageConverters") && attributes.getBoolean("sharedMessageConverters")
+				&& !registry.containsBeanDefinition(SharedMessageConverters.BEAN_NAME)) {
+			GenericBeanDefinition beanDefinition = new GenericBeanDefinition();
+			beanDefinition.setBeanClass(SharedMessageConverters.class);
+			beanDefinition.setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+			beanDefinition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+			registry.registerBeanDefinition(SharedMessageConverters.BEAN_NAME, beanDefinition);
+		}
+	}
+
+	/**
+	 * a single initializer is registered even if several configurations enable
+	 * the parallel initialization, it uses the highest number of threads
+	 */
+	private void registerInitializer(int threads, BeanDefinitionRegistry registry) {
+		if (registry.containsBeanDefinition(DispatcherWebscriptInitializer.BEAN_NAME)) {
+			MutablePropertyValues propertyValues = registry
+					.getBeanDefinition(DispatcherWebscriptInitializer.BEAN_NAME).getPropertyValues();
+			Object current = propertyValues.get("threads");
+			if (current instanceof Integer && (Integer) current >= threads) {
+				return;
+			}
+			propertyValues.add("threads", threads);
+			return;
+		}
+
+		GenericBeanDefinition beanDefinition = new GenericBeanDefinition();
+		beanDefinition.setBeanClass(DispatcherWebscriptInitializer.class);
+		beanDefinition.getPropertyValues().add("threads", threads);
+		beanDefinition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+		registry.registerBeanDefinition(DispatcherWebscriptInitializer.BEAN_NAME, beanDefinition);
 	}
 
-	private void processDispatcherWebscript(AnnotationAttributes webscriptAttributes, BeanDefinitionRegistry registry) {
+	private void processDispatcherWebscript(AnnotationAttributes webscriptAttributes, boolean parallelInitialization,
+			BeanDefinitionRegistry registry) {
 		String webscript = webscriptAttributes.getString("name");
 		Assert.hasText(webscript, "Webscript name cannot be empty!");
 
@@ -82,6 +125,12 @@ public class AlfrescoRestRegistrar implements ImportBeanDefinitionRegistrar {
 				.getClass("servletContextClass");
 		RequestMethod[] httpRequestMethods = (RequestMethod[]) webscriptAttributes.get("httpMethods");
 		boolean inheritGlobalProperties = (Boolean) webscriptAttributes.get("inheritGlobalProperties");
+		boolean handlerCache = webscriptAttributes.getBoolean("handlerCache");
+		int handlerCacheSize = webscriptAttributes.getNumber("handlerCacheSize");
+		String cacheControl = webscriptAttributes.getString("cacheControl");
+		Class<? extends DispatcherWebscriptExceptionTranslator> exceptionTranslator = webscriptAttributes
+				.getClass("exceptionTranslator");
+		boolean asyncSupported = webscriptAttributes.getBoolean("asyncSupported");
 
 		GenericBeanDefinition beanDefinition = new GenericBeanDefinition();
 		beanDefinition.setBeanClass(DispatcherWebscript.class);
@@ -90,6 +139,11 @@ public class AlfrescoRestRegistrar implements ImportBeanDefinitionRegistrar {
 		ws.setContextClass(servletContextClass);
 		ws.setContextConfigLocation(servletContext.getName());
 		ws.addServletConfigOptions(servletConfigOptions);
+		ws.setHandlerCacheSize(handlerCache ? handlerCacheSize : 0);
+		ws.setCacheControl(cacheControl);
+		ws.setExceptionTranslator(BeanUtils.instantiateClass(exceptionTranslator));
+		ws.setAsyncSupported(asyncSupported);
+		ws.setInitializeOnRefresh(!parallelInitialization);
 		beanDefinition.setInstanceSupplier(() -> ws);
 		beanDefinition.setRole(BeanDefinition.ROLE_APPLICATION);
 
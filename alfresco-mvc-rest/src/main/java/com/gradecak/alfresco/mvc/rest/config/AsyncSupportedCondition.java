@@ -0,0 +1,40 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.config;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript;
+
+/**
+ * matches in the servlet context of a dispatcher webscript having the async
+ * support enabled
+ */
+class AsyncSupportedCondition implements Condition {
+
+	@Override
+	public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+		return isAsyncSupported(context.getEnvironment());
+	}
+
+	static boolean isAsyncSupported(Environment environment) {
+		return environment.getProperty(DispatcherWebscript.ASYNC_SUPPORTED_PROPERTY, Boolean.class, false);
+	}
+}
@@ -19,17 +19,28 @@ package com.gradecak.alfresco.mvc.rest.config;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.TimeZone;
 
+import org.alfresco.repo.dictionary.DictionaryDAO;
 import org.alfresco.rest.framework.jacksonextensions.RestJsonModule;
 import org.alfresco.rest.framework.webscripts.ResourceWebScriptHelper;
+import org.alfresco.service.ServiceRegistry;
 import org.alfresco.service.namespace.NamespaceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.EnvironmentAware;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 import org.springframework.format.FormatterRegistry;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.ResourceHttpMessageConverter;
@@ -37,32 +48,97 @@ import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.multipart.MultipartResolver;
 import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.MappedInterceptor;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gradecak.alfresco.mvc.rest.AlfrescoApiResponseInterceptor;
+import com.gradecak.alfresco.mvc.rest.AlfrescoContextTaskDecorator;
+import com.gradecak.alfresco.mvc.rest.AlfrescoNodeETagInterceptor;
+import com.gradecak.alfresco.mvc.rest.NodeRefCacheValidator;
+import com.gradecak.alfresco.mvc.rest.jackson.Jackson2CalendarDeserializer;
+import com.gradecak.alfresco.mvc.rest.jackson.Jackson2CalendarSerializer;
+import com.gradecak.alfresco.mvc.rest.jackson.Jackson2DateDeserializer;
+import com.gradecak.alfresco.mvc.rest.jackson.Jackson2DateSerializer;
+import com.gradecak.alfresco.mvc.rest.jackson.Jackson2DateTimeFormat;
 import com.gradecak.alfresco.mvc.rest.jackson.Jackson2NodeRefDeserializer;
 import com.gradecak.alfresco.mvc.rest.jackson.Jackson2NodeRefSerializer;
 import com.gradecak.alfresco.mvc.rest.jackson.Jackson2QnameDeserializer;
 import com.gradecak.alfresco.mvc.rest.jackson.Jackson2QnameSerializer;
+import com.gradecak.alfresco.mvc.rest.jackson.Jackson2StreamingHttpMessageConverter;
+import com.gradecak.alfresco.mvc.rest.jackson.QNameCache;
+import com.gradecak.alfresco.mvc.rest.jackson.QNameCacheRegistry;
 
 @Configuration
-public class DefaultAlfrescoMvcServletContextConfiguration implements WebMvcConfigurer {
+public class DefaultAlfrescoMvcServletContextConfiguration
+		implements WebMvcConfigurer, EnvironmentAware, InitializingBean, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultAlfrescoMvcServletContextConfiguration.class);
+
+	private static final String[] PROPERTY_ACCESSOR_MODULES = {
+			"com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+			"com.fasterxml.jackson.module.afterburner.AfterburnerModule" };
 
 	private final RestJsonModule alfrescoRestJsonModule;
 	private final NamespaceService namespaceService;
+	private QNameCache qnameCache;
+	private DictionaryDAO dictionaryDAO;
+	private SharedMessageConverters sharedMessageConverters;
+	private Environment environment;
 
 	@Autowired
 	public DefaultAlfrescoMvcServletContextConfiguration(@Nullable RestJsonModule alfrescoRestJsonModule,
 			NamespaceService namespaceService) {
 		this.alfrescoRestJsonModule = alfrescoRestJsonModule;
 		this.namespaceService = namespaceService;
+		this.qnameCache = new QNameCache(namespaceService);
+	}
+
+	/**
+	 * clears the QName cache whenever the dictionary, and so the registered
+	 * namespaces, is reloaded
+	 */
+	@Autowired(required = false)
+	public void setDictionaryDAO(DictionaryDAO dictionaryDAO) {
+		this.dictionaryDAO = dictionaryDAO;
+	}
+
+	/**
+	 * the shared serializers use the QName cache of the Alfresco context, see
+	 * {@link SharedMessageConverters#getQNameCache()}
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		if (sharedMessageConverters != null) {
+			qnameCache = sharedMessageConverters.getQNameCache();
+		} else if (dictionaryDAO != null) {
+			QNameCacheRegistry.register(dictionaryDAO, qnameCache);
+		}
+	}
+
+	/**
+	 * stops listening to the dictionary once the servlet context is closed
+	 */
+	@Override
+	public void destroy() {
+		if (sharedMessageConverters == null && dictionaryDAO != null) {
+			QNameCacheRegistry.unregister(dictionaryDAO, qnameCache);
+		}
+	}
+
+	@Override
+	public void setEnvironment(Environment environment) {
+		this.environment = environment;
 	}
 
 	@Override
@@ -75,6 +151,48 @@ public class DefaultAlfrescoMvcServletContextConfiguration implements WebMvcConf
 		return new AlfrescoApiResponseInterceptor(webscriptHelper);
 	}
 
+	@Bean
+	public NodeRefCacheValidator nodeRefCacheValidator(ServiceRegistry serviceRegistry) {
+		return new NodeRefCacheValidator(serviceRegistry);
+	}
+
+	@Bean
+	public MappedInterceptor alfrescoNodeETagInterceptor(NodeRefCacheValidator nodeRefCacheValidator) {
+		return new MappedInterceptor(null, new AlfrescoNodeETagInterceptor(nodeRefCacheValidator));
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		if (AsyncSupportedCondition.isAsyncSupported(environment)) {
+			configurer.setTaskExecutor(alfrescoMvcAsyncTaskExecutor());
+		}
+	}
+
+	/**
+	 * runs the {@link java.util.concurrent.Callable} returned by the controllers
+	 * with the Alfresco authentication of the request, the controllers might use
+	 * it as well for their own {@link java.util.concurrent.CompletableFuture}.
+	 * Registered only if the dispatcher webscript has the async support enabled,
+	 * the queue is bounded and the tasks over the capacity are rejected.
+	 */
+	@Bean
+	@Conditional(AsyncSupportedCondition.class)
+	public ThreadPoolTaskExecutor alfrescoMvcAsyncTaskExecutor() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("alfresco-mvc-async-");
+		executor.setCorePoolSize(processors);
+		executor.setMaxPoolSize(processors * 2);
+		executor.setQueueCapacity(100);
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setTaskDecorator(new AlfrescoContextTaskDecorator());
+		configureAsyncTaskExecutor(executor);
+		return executor;
+	}
+
+	protected void configureAsyncTaskExecutor(final ThreadPoolTaskExecutor executor) {
+	}
+
 	@Bean
 	public MultipartResolver multipartResolver() {
 		MultipartResolver resolver = createMultipartResolver();
@@ -90,9 +208,22 @@ public class DefaultAlfrescoMvcServletContextConfiguration implements WebMvcConf
 	protected void configureMultipartResolver(final MultipartResolver resolver) {
 	}
 
+	/**
+	 * shares the ObjectMapper and the message converters with the other dispatcher
+	 * webscripts using the same configuration class, see
+	 * {@link com.gradecak.alfresco.mvc.rest.annotation.EnableAlfrescoMvcRest#sharedMessageConverters()}
+	 */
+	@Autowired(required = false)
+	public void setSharedMessageConverters(SharedMessageConverters sharedMessageConverters) {
+		this.sharedMessageConverters = sharedMessageConverters;
+	}
+
 	@Bean
 	@Primary
 	public ObjectMapper objectMapper() {
+		if (sharedMessageConverters != null) {
+			return sharedMessageConverters.getObjectMapper(this, () -> jackson2ObjectMapperBuilder().build());
+		}
 		return jackson2ObjectMapperBuilder().build();
 	}
 
@@ -100,11 +231,20 @@ public class DefaultAlfrescoMvcServletContextConfiguration implements WebMvcConf
 	@Primary
 	public Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder() {
 
-		List<JsonDeserializer<?>> customJsonDeserializers = new ArrayList<>(customJsonDeserializers());
+		// the date codecs check the effective date format of each call, custom
+		// serializers registered for the same types take precedence
+		List<JsonDeserializer<?>> customJsonDeserializers = new ArrayList<>();
+		customJsonDeserializers.add(new Jackson2DateDeserializer());
+		customJsonDeserializers.add(new Jackson2CalendarDeserializer());
+		List<JsonSerializer<?>> customJsonSerilizers = new ArrayList<>();
+		customJsonSerilizers.add(new Jackson2DateSerializer());
+		customJsonSerilizers.add(new Jackson2CalendarSerializer());
+
+		customJsonDeserializers.addAll(customJsonDeserializers());
 		customJsonDeserializers.add(jackson2NodeRefDeserializer());
 		customJsonDeserializers.add(jackson2QnameDeserializer());
 
-		List<JsonSerializer<?>> customJsonSerilizers = new ArrayList<>(customJsonSerilizers());
+		customJsonSerilizers.addAll(customJsonSerilizers());
 		customJsonSerilizers.add(jackson2NodeRefSerializer());
 		customJsonSerilizers.add(jackson2QnameSerializer());
 
@@ -115,8 +255,18 @@ public class DefaultAlfrescoMvcServletContextConfiguration implements WebMvcConf
 				.featuresToEnable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
 				.findModulesViaServiceLoader(true);
 
+		List<Module> modules = new ArrayList<>();
 		if (alfrescoRestJsonModule != null) {
-			builder.modulesToInstall(alfrescoRestJsonModule);
+			modules.add(alfrescoRestJsonModule);
+		}
+		if (propertyAccessorModuleEnabled() && !isPropertyAccessorModuleDiscovered()) {
+			Module propertyAccessorModule = createPropertyAccessorModule();
+			if (propertyAccessorModule != null) {
+				modules.add(propertyAccessorModule);
+			}
+		}
+		if (!modules.isEmpty()) {
+			builder.modulesToInstall(modules.toArray(new Module[0]));
 		}
 
 		customizeJackson2ObjectMapperBuilder(builder);
@@ -124,8 +274,15 @@ public class DefaultAlfrescoMvcServletContextConfiguration implements WebMvcConf
 		return builder;
 	}
 
+	/**
+	 * as long as the effective format of the ObjectMapper is equivalent to the
+	 * default one, including after {@link #customizeJackson2ObjectMapperBuilder},
+	 * the {@link java.util.Date} and {@link java.util.Calendar} values are written
+	 * and read with the thread-safe {@link Jackson2DateTimeFormat}, which produces
+	 * the same output
+	 */
 	protected DateFormat dateFormat() {
-		DateFormat dateFormatIso8601 = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+		DateFormat dateFormatIso8601 = new SimpleDateFormat(Jackson2DateTimeFormat.PATTERN);
 		dateFormatIso8601.setTimeZone(TimeZone.getTimeZone("UTC"));
 		return dateFormatIso8601;
 	}
@@ -133,6 +290,47 @@ public class DefaultAlfrescoMvcServletContextConfiguration implements WebMvcConf
 	protected void customizeJackson2ObjectMapperBuilder(Jackson2ObjectMapperBuilder builder) {
 	}
 
+	/**
+	 * replaces the reflection based property access of the ObjectMapper with
+	 * generated accessors, see {@link #createPropertyAccessorModule()}. Disabled
+	 * by default, a module already installed via the service loader is kept
+	 * either way.
+	 */
+	protected boolean propertyAccessorModuleEnabled() {
+		return false;
+	}
+
+	/**
+	 * @return true if Blackbird or Afterburner is installed via the service loader,
+	 *         no other property accessor module is then created
+	 */
+	protected boolean isPropertyAccessorModuleDiscovered() {
+		List<String> moduleClassNames = Arrays.asList(PROPERTY_ACCESSOR_MODULES);
+		for (Module module : ObjectMapper.findModules(getClass().getClassLoader())) {
+			if (moduleClassNames.contains(module.getClass().getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the Jackson Blackbird module (LambdaMetafactory based) or else the
+	 *         Afterburner module (bytecode generation based), whichever is found
+	 *         first on the classpath, or null if none of them is available
+	 */
+	protected Module createPropertyAccessorModule() {
+		ClassLoader classLoader = getClass().getClassLoader();
+		for (String moduleClassName : PROPERTY_ACCESSOR_MODULES) {
+			if (ClassUtils.isPresent(moduleClassName, classLoader)) {
+				return (Module) BeanUtils.instantiateClass(ClassUtils.resolveClassName(moduleClassName, classLoader));
+			}
+		}
+		LOGGER.warn("No Jackson property accessor module found on the classpath, add one of {}",
+				Arrays.toString(PROPERTY_ACCESSOR_MODULES));
+		return null;
+	}
+
 	protected List<JsonDeserializer<?>> customJsonDeserializers() {
 		return Collections.emptyList();
 	}
@@ -149,8 +347,21 @@ public class DefaultAlfrescoMvcServletContextConfiguration implements WebMvcConf
 
 	@Override
 	public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
+		if (sharedMessageConverters != null) {
+			converters.addAll(sharedMessageConverters.getMessageConverters(this, () -> {
+				List<HttpMessageConverter<?>> messageConverters = new ArrayList<>();
+				addMessageConverters(messageConverters);
+				return messageConverters;
+			}));
+		} else {
+			addMessageConverters(converters);
+		}
+	}
+
+	protected void addMessageConverters(List<HttpMessageConverter<?>> converters) {
 		converters.add(new ResourceHttpMessageConverter());
 		converters.add(new StringHttpMessageConverter());
+		converters.add(new Jackson2StreamingHttpMessageConverter(objectMapper()));
 		converters.add(new MappingJackson2HttpMessageConverter(objectMapper()));
 	}
 
@@ -159,7 +370,7 @@ public class DefaultAlfrescoMvcServletContextConfiguration implements WebMvcConf
 	}
 
 	protected Jackson2QnameDeserializer jackson2QnameDeserializer() {
-		return new Jackson2QnameDeserializer(namespaceService);
+		return new Jackson2QnameDeserializer(qnameCache);
 	}
 
 	protected Jackson2NodeRefSerializer jackson2NodeRefSerializer() {
@@ -167,7 +378,7 @@ public class DefaultAlfrescoMvcServletContextConfiguration implements WebMvcConf
 	}
 
 	protected Jackson2QnameSerializer jackson2QnameSerializer() {
-		return new Jackson2QnameSerializer(namespaceService);
+		return new Jackson2QnameSerializer(qnameCache);
 	}
 
 }
@@ -18,7 +18,6 @@ package com.gradecak.alfresco.mvc.rest.config;
 
 import org.alfresco.rest.framework.resource.parameters.Params;
 import org.springframework.core.MethodParameter;
-import org.springframework.extensions.webscripts.servlet.WebScriptServletRequest;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
@@ -37,11 +36,9 @@ public class ParamsHandlerMethodArgumentResolver implements HandlerMethodArgumen
 	@Override
 	public Params resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
 			NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
-		Object nativeRequest = webRequest.getNativeRequest();
-		if (nativeRequest instanceof WebscriptRequestWrapper) {
-			WebScriptServletRequest webScriptServletRequest = ((WebscriptRequestWrapper) nativeRequest)
-					.getWebScriptServletRequest();
-			return AlfrescoApiResponseInterceptor.getDefaultParameters(webScriptServletRequest);
+		WebscriptRequestWrapper nativeRequest = webRequest.getNativeRequest(WebscriptRequestWrapper.class);
+		if (nativeRequest != null) {
+			return AlfrescoApiResponseInterceptor.getRequestParameters(nativeRequest);
 		}
 		return AlfrescoApiResponseInterceptor.getDefaultParameters(null);
 	}
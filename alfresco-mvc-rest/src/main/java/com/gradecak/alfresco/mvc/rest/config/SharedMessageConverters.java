@@ -0,0 +1,113 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.config;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.alfresco.repo.dictionary.DictionaryDAO;
+import org.alfresco.service.namespace.NamespaceService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gradecak.alfresco.mvc.rest.jackson.QNameCache;
+import com.gradecak.alfresco.mvc.rest.jackson.QNameCacheRegistry;
+
+/**
+ * holds the ObjectMapper and the message converters of the dispatcher
+ * webscripts, so that the dispatcher webscripts using the same configuration
+ * class share them (including their warmed-up serializer caches) instead of
+ * building their own. It is registered in the Alfresco context by
+ * {@link com.gradecak.alfresco.mvc.rest.annotation.EnableAlfrescoMvcRest#sharedMessageConverters()},
+ * see {@link DefaultAlfrescoMvcServletContextConfiguration}.
+ * <p>
+ * The shared instances are owned by the Alfresco context and kept until it is
+ * closed, closing a servlet context does not affect them. They must therefore
+ * only reference beans of the Alfresco context: the QName serializers use the
+ * {@link #getQNameCache() QName cache} of this bean, which is cleared on each
+ * dictionary reload as long as the Alfresco context is open.
+ * <p>
+ * The instances are built once per configuration class, by the first servlet
+ * context asking for them. The dispatcher webscripts sharing a configuration
+ * class get the same instances whatever their own settings (e.g.
+ * {@link com.gradecak.alfresco.mvc.rest.annotation.AlfrescoDispatcherWebscript#asyncSupported()}
+ * or the servlet environment), a configuration building different converters
+ * per dispatcher webscript needs a distinct subclass for each of them.
+ */
+public class SharedMessageConverters implements DisposableBean {
+
+	public static final String BEAN_NAME = "alfresco-mvc.sharedMessageConverters";
+
+	private final QNameCache qnameCache;
+	private final DictionaryDAO dictionaryDAO;
+
+	private final Map<Class<?>, ObjectMapper> objectMappers = new ConcurrentHashMap<>();
+	private final Map<Class<?>, List<HttpMessageConverter<?>>> messageConverters = new ConcurrentHashMap<>();
+
+	public SharedMessageConverters(final NamespaceService namespaceService,
+			@Nullable final DictionaryDAO dictionaryDAO) {
+		this.qnameCache = new QNameCache(namespaceService);
+		this.dictionaryDAO = dictionaryDAO;
+		if (dictionaryDAO != null) {
+			QNameCacheRegistry.register(dictionaryDAO, qnameCache);
+		}
+	}
+
+	/**
+	 * @return the QName cache used by the shared serializers
+	 */
+	public QNameCache getQNameCache() {
+		return qnameCache;
+	}
+
+	/**
+	 * @return the ObjectMapper of the configuration class, created by the factory
+	 *         for the first dispatcher webscript asking for it
+	 */
+	public ObjectMapper getObjectMapper(final Object configuration, final Supplier<ObjectMapper> factory) {
+		return objectMappers.computeIfAbsent(ClassUtils.getUserClass(configuration), key -> factory.get());
+	}
+
+	/**
+	 * @return the unmodifiable message converters of the configuration class,
+	 *         created by the factory for the first dispatcher webscript asking for
+	 *         them
+	 */
+	public List<HttpMessageConverter<?>> getMessageConverters(final Object configuration,
+			final Supplier<List<HttpMessageConverter<?>>> factory) {
+		return messageConverters.computeIfAbsent(ClassUtils.getUserClass(configuration),
+				key -> Collections.unmodifiableList(factory.get()));
+	}
+
+	/**
+	 * stops listening to the dictionary once the Alfresco context is closed
+	 */
+	@Override
+	public void destroy() {
+		if (dictionaryDAO != null) {
+			QNameCacheRegistry.unregister(dictionaryDAO, qnameCache);
+		}
+		objectMappers.clear();
+		messageConverters.clear();
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.jackson;
+
+import java.io.IOException;
+import java.util.Date;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.DateDeserializers.CalendarDeserializer;
+
+/**
+ * reads the {@link java.util.Calendar} values written by {@link Jackson2CalendarSerializer}
+ * with {@link Jackson2DateTimeFormat}, any other string is still parsed with the
+ * date format of the ObjectMapper. The date format of the deserialization
+ * config is used alone if it is not
+ * {@link Jackson2DateTimeFormat#isEquivalent(java.text.DateFormat) equivalent}.
+ */
+public class Jackson2CalendarDeserializer extends CalendarDeserializer {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	protected Date _parseDate(String value, DeserializationContext ctxt) throws IOException {
+		if (Jackson2DateTimeFormat.isEquivalentInstance(ctxt.getConfig().getDateFormat())) {
+			Date date = Jackson2DateTimeFormat.parse(value);
+			if (date != null) {
+				return date;
+			}
+		}
+		return super._parseDate(value, ctxt);
+	}
+}
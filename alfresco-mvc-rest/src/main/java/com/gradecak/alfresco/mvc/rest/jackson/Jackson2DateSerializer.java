@@ -0,0 +1,51 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.jackson;
+
+import java.io.IOException;
+import java.util.Date;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.DateSerializer;
+
+/**
+ * writes the {@link Date} values with {@link Jackson2DateTimeFormat} instead of
+ * a copy of the {@link java.text.SimpleDateFormat} of the ObjectMapper, the
+ * output is the same. The date format of the serialization config is used as
+ * usual if it is not
+ * {@link Jackson2DateTimeFormat#isEquivalent(java.text.DateFormat) equivalent},
+ * e.g. after a call to setDateFormat or setTimeZone of the ObjectMapper or the
+ * ObjectWriter.
+ */
+public class Jackson2DateSerializer extends DateSerializer {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public void serialize(Date value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+		if (!_asTimestamp(provider)
+				&& Jackson2DateTimeFormat.isEquivalentInstance(provider.getConfig().getDateFormat())) {
+			String formatted = Jackson2DateTimeFormat.format(value.getTime());
+			if (formatted != null) {
+				jgen.writeString(formatted);
+				return;
+			}
+		}
+		super.serialize(value, jgen, provider);
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.jackson;
+
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+/**
+ * the thread-safe {@link DateTimeFormatter} equivalent of the
+ * "yyyy-MM-dd'T'HH:mm:ss.SSSZ" UTC {@link SimpleDateFormat} used by default for
+ * the Alfresco @MVC JSON dates.
+ * <p>
+ * Both only agree between the Gregorian calendar cutover (1582-10-15) and the
+ * year 9999, the {@link SimpleDateFormat} uses the Julian calendar before and
+ * does not prefix the years after with a sign. The values outside of this range
+ * are left to the {@link SimpleDateFormat}, as well as the strings that are not
+ * exactly in the format since its lenient parsing accepts more.
+ */
+public final class Jackson2DateTimeFormat {
+
+	public static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSZ")
+			.withResolverStyle(ResolverStyle.STRICT);
+	private static final DateTimeFormatter UTC_FORMATTER = FORMATTER.withZone(ZoneOffset.UTC);
+
+	private static final long MIN_MILLIS = new GregorianCalendar().getGregorianChange().getTime();
+	private static final long MAX_MILLIS = Instant.parse("9999-12-31T23:59:59.999Z").toEpochMilli();
+
+	private static volatile DateFormat lastEquivalent;
+
+	private Jackson2DateTimeFormat() {
+	}
+
+	/**
+	 * @return the formatted date or null if the date is out of the supported range
+	 */
+	public static String format(final long millis) {
+		if (millis < MIN_MILLIS || millis > MAX_MILLIS) {
+			return null;
+		}
+		return UTC_FORMATTER.format(Instant.ofEpochMilli(millis));
+	}
+
+	/**
+	 * @return the parsed date or null if the value is not exactly in the format or
+	 *         is out of the supported range
+	 */
+	public static Date parse(final String value) {
+		long millis;
+		try {
+			millis = OffsetDateTime.parse(value, FORMATTER).toInstant().toEpochMilli();
+		} catch (DateTimeParseException | ArithmeticException e) {
+			return null;
+		}
+		return millis < MIN_MILLIS || millis > MAX_MILLIS ? null : new Date(millis);
+	}
+
+	/**
+	 * @return true if the given format produces the same output as this one, i.e.
+	 *         a lenient UTC {@link SimpleDateFormat} with the {@link #PATTERN}, the
+	 *         default Gregorian calendar and ASCII digits
+	 */
+	public static boolean isEquivalent(final DateFormat dateFormat) {
+		if (!(dateFormat instanceof SimpleDateFormat) || !PATTERN.equals(((SimpleDateFormat) dateFormat).toPattern())
+				|| !"UTC".equals(dateFormat.getTimeZone().getID()) || !dateFormat.isLenient()) {
+			return false;
+		}
+		if (dateFormat.getCalendar().getClass() != GregorianCalendar.class || ((GregorianCalendar) dateFormat
+				.getCalendar()).getGregorianChange().getTime() != MIN_MILLIS) {
+			return false;
+		}
+		return dateFormat.getNumberFormat() instanceof DecimalFormat
+				&& ((DecimalFormat) dateFormat.getNumberFormat()).getDecimalFormatSymbols().getZeroDigit() == '0';
+	}
+
+	/**
+	 * {@link #isEquivalent(DateFormat)} remembering the last equivalent instance,
+	 * an ObjectMapper passes the same date format instance to every call as long
+	 * as its configuration is not changed
+	 */
+	static boolean isEquivalentInstance(final DateFormat dateFormat) {
+		if (dateFormat == lastEquivalent) {
+			return dateFormat != null;
+		}
+		if (isEquivalent(dateFormat)) {
+			lastEquivalent = dateFormat;
+			return true;
+		}
+		return false;
+	}
+}
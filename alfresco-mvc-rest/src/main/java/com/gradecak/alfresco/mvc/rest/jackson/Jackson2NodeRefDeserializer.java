@@ -19,7 +19,6 @@ package com.gradecak.alfresco.mvc.rest.jackson;
 import java.io.IOException;
 
 import org.alfresco.service.cmr.repository.NodeRef;
-import org.alfresco.service.cmr.repository.StoreRef;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.util.StringUtils;
 
@@ -38,10 +37,7 @@ public class Jackson2NodeRefDeserializer extends JsonDeserializer<NodeRef> imple
 	public NodeRef deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
 
 		String id = jp.getText();
-		if (NodeRef.isNodeRef(id)) {
-			return new NodeRef(id);
-		}
-		return new NodeRef(StoreRef.STORE_REF_WORKSPACE_SPACESSTORE, id);
+		return NodeRefParser.parse(id);
 	}
 
 	@Override
@@ -49,10 +45,7 @@ public class Jackson2NodeRefDeserializer extends JsonDeserializer<NodeRef> imple
 		if (!StringUtils.hasText(id)) {
 			return null;
 		}
-		if (NodeRef.isNodeRef(id)) {
-			return new NodeRef(id);
-		}
-		return new NodeRef(StoreRef.STORE_REF_WORKSPACE_SPACESSTORE, id);
+		return NodeRefParser.parse(id);
 	}
 
 }
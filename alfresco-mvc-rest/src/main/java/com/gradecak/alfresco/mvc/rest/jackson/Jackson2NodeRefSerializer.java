@@ -20,6 +20,8 @@ import java.io.IOException;
 
 import org.alfresco.service.cmr.repository.NodeRef;
 
+import org.springframework.util.Assert;
+
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.SerializerProvider;
@@ -29,14 +31,30 @@ public class Jackson2NodeRefSerializer extends StdSerializer<NodeRef> {
 
 	private static final long serialVersionUID = 1L;
 
+	private final Format format;
+
 	public Jackson2NodeRefSerializer() {
+		this(Format.ID);
+	}
+
+	public Jackson2NodeRefSerializer(Format format) {
 		super(NodeRef.class);
+		Assert.notNull(format, "[Assertion failed] - format must not be null");
+		this.format = format;
 	}
 
 	@Override
 	public void serialize(NodeRef value, JsonGenerator jgen, SerializerProvider provider)
 			throws IOException, JsonProcessingException {
-		jgen.writeString(value.getId());
+		if (format == Format.FULL || (format == Format.ID_IF_SPACES_STORE && !NodeRefParser.isSpacesStore(value))) {
+			jgen.writeString(value.toString());
+		} else {
+			jgen.writeString(value.getId());
+		}
+	}
+
+	public Format getFormat() {
+		return format;
 	}
 
 	@Override
@@ -44,4 +62,20 @@ public class Jackson2NodeRefSerializer extends StdSerializer<NodeRef> {
 		return NodeRef.class;
 	}
 
+	public static enum Format {
+		/**
+		 * only the node id, the store is lost for nodes outside of the
+		 * workspace://SpacesStore
+		 */
+		ID,
+		/**
+		 * the full node reference "protocol://identifier/id"
+		 */
+		FULL,
+		/**
+		 * the node id for the workspace://SpacesStore and the full node reference
+		 * otherwise, {@link Jackson2NodeRefDeserializer} reads both without loss
+		 */
+		ID_IF_SPACES_STORE
+	}
 }
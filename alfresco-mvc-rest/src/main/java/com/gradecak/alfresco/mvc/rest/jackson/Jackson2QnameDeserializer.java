@@ -29,11 +29,16 @@ import com.fasterxml.jackson.databind.JsonDeserializer;
 public class Jackson2QnameDeserializer extends JsonDeserializer<QName> implements Converter<String, QName> {
 
 	private NamespaceService namespaceService;
+	private QNameCache qnameCache;
 
 	public Jackson2QnameDeserializer(NamespaceService namespaceService) {
 		this.namespaceService = namespaceService;
 	}
 
+	public Jackson2QnameDeserializer(QNameCache qnameCache) {
+		this.qnameCache = qnameCache;
+	}
+
 	@Override
 	public Class<?> handledType() {
 		return QName.class;
@@ -42,11 +47,14 @@ public class Jackson2QnameDeserializer extends JsonDeserializer<QName> implement
 	@Override
 	public QName deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
 		String qname = jp.getText();
-		return QName.resolveToQName(namespaceService, qname);
+		return convert(qname);
 	}
 
 	@Override
 	public QName convert(String qname) {
+		if (qnameCache != null) {
+			return qnameCache.resolveToQName(qname);
+		}
 		return QName.resolveToQName(namespaceService, qname);
 	}
 
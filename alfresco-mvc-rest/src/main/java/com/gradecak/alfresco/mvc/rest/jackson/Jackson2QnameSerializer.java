@@ -30,14 +30,25 @@ public class Jackson2QnameSerializer extends StdSerializer<QName> {
 	private static final long serialVersionUID = 1L;
 
 	private NamespaceService namespaceService;
+	private QNameCache qnameCache;
 
 	public Jackson2QnameSerializer(NamespaceService namespaceService) {
 		super(QName.class);
 		this.namespaceService = namespaceService;
 	}
 
+	public Jackson2QnameSerializer(QNameCache qnameCache) {
+		super(QName.class);
+		this.qnameCache = qnameCache;
+	}
+
 	@Override
 	public void serialize(QName value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+		if (qnameCache != null) {
+			jgen.writeString(qnameCache.getSerializedString(value));
+			return;
+		}
+
 		String qNameString = QName.resolveToQNameString(namespaceService, value.toString());
 		jgen.writeString(qNameString);
 	}
@@ -0,0 +1,135 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.jackson;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.BaseStream;
+
+import org.alfresco.rest.framework.resource.parameters.CollectionWithPagingInfo;
+import org.alfresco.rest.framework.resource.parameters.Paging;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gradecak.alfresco.mvc.rest.StreamingPagedCollection;
+
+/**
+ * writes a {@link java.util.stream.Stream} or an {@link Iterator} returned by a
+ * controller as a JSON array, element by element, straight to the response. A
+ * {@link StreamingPagedCollection} is written one page at a time with the
+ * Alfresco "list" envelope. The stream is closed once written.
+ */
+public class Jackson2StreamingHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+	private static final int DEFAULT_PAGE_CAPACITY = 256;
+
+	private final ObjectMapper objectMapper;
+	private final ObjectWriter objectWriter;
+
+	public Jackson2StreamingHttpMessageConverter(final ObjectMapper objectMapper) {
+		super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+		this.objectMapper = objectMapper;
+		// the generator is flushed once all the entries are written
+		this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return BaseStream.class.isAssignableFrom(clazz) || Iterator.class.isAssignableFrom(clazz)
+				|| StreamingPagedCollection.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	public boolean canRead(Class<?> clazz, MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	protected Object readInternal(Class<? extends Object> clazz, HttpInputMessage inputMessage)
+			throws IOException, HttpMessageNotReadableException {
+		throw new HttpMessageNotReadableException("Streaming bodies cannot be read", inputMessage);
+	}
+
+	@Override
+	protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+		Object source = body instanceof StreamingPagedCollection ? ((StreamingPagedCollection) body).getSource()
+				: body;
+
+		OutputStream outputStream = StreamUtils.nonClosing(outputMessage.getBody());
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+			if (body instanceof StreamingPagedCollection) {
+				writePagedCollection(generator, (StreamingPagedCollection) body);
+			} else {
+				generator.writeStartArray();
+				writeEntries(generator, source);
+				generator.writeEndArray();
+			}
+			generator.flush();
+		} finally {
+			if (source instanceof BaseStream) {
+				((BaseStream<?, ?>) source).close();
+			}
+		}
+	}
+
+	/**
+	 * at most "maxItems" entries are consumed and one more is peeked in order to
+	 * know "hasMoreItems". The page is written as a
+	 * {@link CollectionWithPagingInfo}, so the envelope is the one of the
+	 * non-streaming responses.
+	 */
+	private void writePagedCollection(JsonGenerator generator, StreamingPagedCollection collection)
+			throws IOException {
+		Paging paging = collection.getPaging();
+		int maxItems = paging != null ? paging.getMaxItems() : Integer.MAX_VALUE;
+		Iterator<?> iterator = iterator(collection.getSource());
+
+		List<Object> entries = new ArrayList<>(Math.min(maxItems, DEFAULT_PAGE_CAPACITY));
+		while (entries.size() < maxItems && iterator.hasNext()) {
+			entries.add(collection.getEntryMapper().apply(iterator.next()));
+		}
+
+		boolean hasMoreItems = iterator.hasNext();
+		Integer totalItems = hasMoreItems ? null
+				: (paging != null ? paging.getSkipCount() : 0) + entries.size();
+		objectWriter.writeValue(generator,
+				CollectionWithPagingInfo.asPaged(paging, entries, hasMoreItems, totalItems));
+	}
+
+	private void writeEntries(JsonGenerator generator, Object source) throws IOException {
+		Iterator<?> iterator = iterator(source);
+		while (iterator.hasNext()) {
+			objectWriter.writeValue(generator, iterator.next());
+		}
+	}
+
+	private static Iterator<?> iterator(Object source) {
+		return source instanceof BaseStream ? ((BaseStream<?, ?>) source).iterator() : (Iterator<?>) source;
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.jackson;
+
+import org.alfresco.service.cmr.repository.NodeRef;
+import org.alfresco.service.cmr.repository.StoreRef;
+
+/**
+ * parses node references without the regular expression of
+ * {@link NodeRef#isNodeRef(String)}. A value is either a full node reference
+ * "protocol://identifier/id" or only the id of a node in the
+ * workspace://SpacesStore, the well-known stores are shared instead of being
+ * created for every parsed value.
+ * <p>
+ * The result is the same as the one of
+ * {@code NodeRef.isNodeRef(value) ? new NodeRef(value) : new NodeRef(STORE_REF_WORKSPACE_SPACESSTORE, value)},
+ * the unusual values not handled by the fast path (e.g. a trailing slash) are
+ * still delegated to it.
+ */
+public final class NodeRefParser {
+
+	private static final StoreRef[] KNOWN_STORES = { StoreRef.STORE_REF_WORKSPACE_SPACESSTORE,
+			StoreRef.STORE_REF_ARCHIVE_SPACESSTORE, new StoreRef(StoreRef.PROTOCOL_WORKSPACE, "version2Store"),
+			new StoreRef("user", "alfrescoUserStore"), new StoreRef("system", "system"),
+			new StoreRef(StoreRef.PROTOCOL_WORKSPACE, "lightWeightVersionStore") };
+	private static final String[] KNOWN_STORE_STRINGS = new String[KNOWN_STORES.length];
+
+	static {
+		for (int i = 0; i < KNOWN_STORES.length; i++) {
+			KNOWN_STORE_STRINGS[i] = KNOWN_STORES[i].toString();
+		}
+	}
+
+	private NodeRefParser() {
+	}
+
+	/**
+	 * @return the node reference of a full node reference or of a node id in the
+	 *         workspace://SpacesStore
+	 */
+	public static NodeRef parse(final String value) {
+		int protocolEnd = value.indexOf(StoreRef.URI_FILLER);
+		if (protocolEnd < 0) {
+			return new NodeRef(StoreRef.STORE_REF_WORKSPACE_SPACESSTORE, value);
+		}
+
+		int idSeparator = value.lastIndexOf('/');
+		if (protocolEnd == 0 || idSeparator < protocolEnd + StoreRef.URI_FILLER.length() + 1
+				|| idSeparator == value.length() - 1 || containsLineTerminator(value)) {
+			return NodeRef.isNodeRef(value) ? new NodeRef(value)
+					: new NodeRef(StoreRef.STORE_REF_WORKSPACE_SPACESSTORE, value);
+		}
+
+		return new NodeRef(getStoreRef(value, protocolEnd, idSeparator), value.substring(idSeparator + 1));
+	}
+
+	/**
+	 * @return true if the value would be written only as an id, i.e. it belongs to
+	 *         the workspace://SpacesStore
+	 */
+	public static boolean isSpacesStore(final NodeRef nodeRef) {
+		StoreRef storeRef = nodeRef.getStoreRef();
+		return storeRef == StoreRef.STORE_REF_WORKSPACE_SPACESSTORE
+				|| StoreRef.STORE_REF_WORKSPACE_SPACESSTORE.equals(storeRef);
+	}
+
+	private static StoreRef getStoreRef(final String value, final int protocolEnd, final int idSeparator) {
+		for (int i = 0; i < KNOWN_STORE_STRINGS.length; i++) {
+			String store = KNOWN_STORE_STRINGS[i];
+			if (store.length() == idSeparator && value.startsWith(store)) {
+				return KNOWN_STORES[i];
+			}
+		}
+		return new StoreRef(value.substring(0, protocolEnd),
+				value.substring(protocolEnd + StoreRef.URI_FILLER.length(), idSeparator));
+	}
+
+	/**
+	 * the characters not matched by the "." of a regular expression
+	 */
+	private static boolean containsLineTerminator(final String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+				return true;
+			}
+		}
+		return false;
+	}
+}
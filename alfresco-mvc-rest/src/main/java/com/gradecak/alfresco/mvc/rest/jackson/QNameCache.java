@@ -0,0 +1,113 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.jackson;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.alfresco.repo.dictionary.DictionaryListener;
+import org.alfresco.service.namespace.NamespaceService;
+import org.alfresco.service.namespace.QName;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * a bounded cache of the QName conversions shared by
+ * {@link Jackson2QnameSerializer} and {@link Jackson2QnameDeserializer}.
+ * <p>
+ * The resolved strings depend on the registered namespaces, the cache is
+ * therefore cleared whenever the dictionary is (re)initialized. Register it via
+ * {@link QNameCacheRegistry#register(org.alfresco.repo.dictionary.DictionaryDAO, QNameCache)}.
+ * Once a map reaches the maximum size it is cleared instead of evicting single
+ * entries, node property payloads only use a limited set of QNames.
+ */
+public class QNameCache implements DictionaryListener {
+
+	public static final int DEFAULT_MAX_SIZE = 10000;
+
+	private final NamespaceService namespaceService;
+	private final int maxSize;
+
+	private final Map<QName, SerializableString> serializedStrings = new ConcurrentHashMap<>();
+	private final Map<String, QName> qnames = new ConcurrentHashMap<>();
+
+	public QNameCache(final NamespaceService namespaceService) {
+		this(namespaceService, DEFAULT_MAX_SIZE);
+	}
+
+	public QNameCache(final NamespaceService namespaceService, final int maxSize) {
+		Assert.notNull(namespaceService, "[Assertion failed] - namespaceService must not be null");
+		Assert.isTrue(maxSize > 0, "[Assertion failed] - maxSize must be greater than 0");
+		this.namespaceService = namespaceService;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return the pre-encoded JSON string of the fully resolved QName
+	 */
+	public SerializableString getSerializedString(final QName qname) {
+		SerializableString serializedString = serializedStrings.get(qname);
+		if (serializedString == null) {
+			serializedString = new SerializedString(
+					QName.resolveToQNameString(namespaceService, qname.toString()));
+			put(serializedStrings, qname, serializedString);
+		}
+		return serializedString;
+	}
+
+	/**
+	 * @return the QName of a prefixed, fully qualified or content model local
+	 *         name as resolved by {@link QName#resolveToQName}
+	 */
+	public QName resolveToQName(final String qname) {
+		QName resolved = qnames.get(qname);
+		if (resolved == null) {
+			resolved = QName.resolveToQName(namespaceService, qname);
+			put(qnames, qname, resolved);
+		}
+		return resolved;
+	}
+
+	public void clear() {
+		serializedStrings.clear();
+		qnames.clear();
+	}
+
+	private <K, V> void put(final Map<K, V> map, final K key, final V value) {
+		if (map.size() >= maxSize) {
+			map.clear();
+		}
+		map.put(key, value);
+	}
+
+	@Override
+	public void onDictionaryInit() {
+		clear();
+	}
+
+	@Override
+	public void afterDictionaryInit() {
+		clear();
+	}
+
+	@Override
+	public void afterDictionaryDestroy() {
+		clear();
+	}
+}
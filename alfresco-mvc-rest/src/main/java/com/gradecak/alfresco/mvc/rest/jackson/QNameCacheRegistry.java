@@ -0,0 +1,81 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.jackson;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.alfresco.repo.dictionary.DictionaryDAO;
+import org.alfresco.repo.dictionary.DictionaryListener;
+
+/**
+ * the {@link DictionaryListener} of the {@link QNameCache}s. A listener
+ * registered with a {@link DictionaryDAO} is kept for the whole life of the
+ * DictionaryDAO, a single registry is therefore registered per DictionaryDAO
+ * and forwards the dictionary events to the caches currently registered. The
+ * servlet contexts register their cache when created and unregister it when
+ * closed, so that refreshing them does not accumulate listeners.
+ */
+public final class QNameCacheRegistry implements DictionaryListener {
+
+	private static final Map<DictionaryDAO, QNameCacheRegistry> REGISTRIES = new WeakHashMap<>();
+
+	private final Set<QNameCache> caches = new CopyOnWriteArraySet<>();
+
+	private QNameCacheRegistry() {
+	}
+
+	public static void register(final DictionaryDAO dictionaryDAO, final QNameCache cache) {
+		QNameCacheRegistry registry;
+		synchronized (REGISTRIES) {
+			registry = REGISTRIES.get(dictionaryDAO);
+			if (registry == null) {
+				registry = new QNameCacheRegistry();
+				dictionaryDAO.registerListener(registry);
+				REGISTRIES.put(dictionaryDAO, registry);
+			}
+		}
+		registry.caches.add(cache);
+	}
+
+	public static void unregister(final DictionaryDAO dictionaryDAO, final QNameCache cache) {
+		QNameCacheRegistry registry;
+		synchronized (REGISTRIES) {
+			registry = REGISTRIES.get(dictionaryDAO);
+		}
+		if (registry != null) {
+			registry.caches.remove(cache);
+		}
+	}
+
+	@Override
+	public void onDictionaryInit() {
+		caches.forEach(QNameCache::onDictionaryInit);
+	}
+
+	@Override
+	public void afterDictionaryInit() {
+		caches.forEach(QNameCache::afterDictionaryInit);
+	}
+
+	@Override
+	public void afterDictionaryDestroy() {
+		caches.forEach(QNameCache::afterDictionaryDestroy);
+	}
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.webscript;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.alfresco.repo.security.authentication.AuthenticationException;
+import org.alfresco.repo.security.permissions.AccessDeniedException;
+import org.alfresco.service.cmr.repository.InvalidNodeRefException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript.WebscriptRequestWrapper;
+
+/**
+ * the default {@link DispatcherWebscriptExceptionTranslator}
+ * <ul>
+ * <li>a client abort (disconnected client) is not an error, it is only logged
+ * at debug level. It is recognized by the type of the failure or of one of its
+ * causes, by default the client abort exceptions of Tomcat, Jetty and Spring
+ * MVC found on the classpath</li>
+ * <li>a failure mapped to an HTTP status is sent as an error response without
+ * any further wrapping</li>
+ * <li>any other failure is logged and wrapped into an {@link IOException} for
+ * the webscript runtime</li>
+ * </ul>
+ */
+public class DefaultDispatcherWebscriptExceptionTranslator implements DispatcherWebscriptExceptionTranslator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultDispatcherWebscriptExceptionTranslator.class);
+
+	private static final String[] CLIENT_ABORT_EXCEPTIONS = { "org.apache.catalina.connector.ClientAbortException",
+			"org.eclipse.jetty.io.EofException",
+			"org.springframework.web.context.request.async.AsyncRequestNotUsableException" };
+
+	private final Map<Class<? extends Throwable>, HttpStatus> statusMappings;
+	private final Set<Class<? extends Throwable>> clientAbortTypes;
+
+	public DefaultDispatcherWebscriptExceptionTranslator() {
+		this(defaultStatusMappings());
+	}
+
+	public DefaultDispatcherWebscriptExceptionTranslator(
+			final Map<Class<? extends Throwable>, HttpStatus> statusMappings) {
+		this(statusMappings, defaultClientAbortTypes());
+	}
+
+	public DefaultDispatcherWebscriptExceptionTranslator(
+			final Map<Class<? extends Throwable>, HttpStatus> statusMappings,
+			final Collection<Class<? extends Throwable>> clientAbortTypes) {
+		Assert.notNull(statusMappings, "[Assertion failed] - statusMappings must not be null");
+		Assert.notNull(clientAbortTypes, "[Assertion failed] - clientAbortTypes must not be null");
+		this.statusMappings = new LinkedHashMap<>(statusMappings);
+		this.clientAbortTypes = new LinkedHashSet<>(clientAbortTypes);
+	}
+
+	public void translate(Throwable failure, WebscriptRequestWrapper request, HttpServletResponse response)
+			throws IOException {
+		if (isClientAbort(failure)) {
+			LOGGER.debug("Client aborted the request {}: {}", request.getRequestURI(), failure.getMessage());
+			return;
+		}
+
+		HttpStatus status = resolveStatus(failure);
+		if (status != null) {
+			LOGGER.debug("Failed to call {}, responding with {}: {}", request.getRequestURI(), status,
+					failure.getMessage());
+			if (!response.isCommitted()) {
+				response.sendError(status.value());
+			}
+			return;
+		}
+
+		LOGGER.error("Failed to call {}", request.getRequestURI());
+		throw new IOException(failure);
+	}
+
+	/**
+	 * @return the HTTP status mapped to the failure or to one of its causes,
+	 *         <code>null</code> if none is mapped
+	 */
+	protected HttpStatus resolveStatus(Throwable failure) {
+		for (Throwable t = failure; t != null; t = t.getCause()) {
+			for (Map.Entry<Class<? extends Throwable>, HttpStatus> mapping : statusMappings.entrySet()) {
+				if (mapping.getKey().isInstance(t)) {
+					return mapping.getValue();
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return true if the failure or one of its causes is an instance of a client
+	 *         abort type
+	 */
+	protected boolean isClientAbort(Throwable failure) {
+		for (Throwable t = failure; t != null; t = t.getCause()) {
+			for (Class<? extends Throwable> clientAbortType : clientAbortTypes) {
+				if (clientAbortType.isInstance(t)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	public Map<Class<? extends Throwable>, HttpStatus> getStatusMappings() {
+		return Collections.unmodifiableMap(statusMappings);
+	}
+
+	public Set<Class<? extends Throwable>> getClientAbortTypes() {
+		return Collections.unmodifiableSet(clientAbortTypes);
+	}
+
+	protected static Map<Class<? extends Throwable>, HttpStatus> defaultStatusMappings() {
+		Map<Class<? extends Throwable>, HttpStatus> mappings = new LinkedHashMap<>();
+		mappings.put(AuthenticationException.class, HttpStatus.UNAUTHORIZED);
+		mappings.put(AccessDeniedException.class, HttpStatus.FORBIDDEN);
+		mappings.put(InvalidNodeRefException.class, HttpStatus.NOT_FOUND);
+		return mappings;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected static Set<Class<? extends Throwable>> defaultClientAbortTypes() {
+		ClassLoader classLoader = DefaultDispatcherWebscriptExceptionTranslator.class.getClassLoader();
+		Set<Class<? extends Throwable>> types = new LinkedHashSet<>();
+		for (String className : CLIENT_ABORT_EXCEPTIONS) {
+			if (ClassUtils.isPresent(className, classLoader)) {
+				types.add((Class<? extends Throwable>) ClassUtils.resolveClassName(className, classLoader));
+			}
+		}
+		return types;
+	}
+}
@@ -17,21 +17,29 @@
 package com.gradecak.alfresco.mvc.webscript;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -50,8 +58,10 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.core.env.AbstractEnvironment;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.extensions.webscripts.AbstractWebScript;
 import org.springframework.extensions.webscripts.WebScriptRequest;
 import org.springframework.extensions.webscripts.WebScriptResponse;
@@ -59,25 +69,55 @@ import org.springframework.extensions.webscripts.WrappingWebScriptRequest;
 import org.springframework.extensions.webscripts.WrappingWebScriptResponse;
 import org.springframework.extensions.webscripts.servlet.WebScriptServletRequest;
 import org.springframework.extensions.webscripts.servlet.WebScriptServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.context.ConfigurableWebApplicationContext;
 import org.springframework.web.context.ServletContextAware;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
+
+import com.gradecak.alfresco.mvc.rest.AlfrescoContextTaskDecorator;
 
 public class DispatcherWebscript extends AbstractWebScript
 		implements ApplicationListener<ContextRefreshedEvent>, ServletContextAware, ApplicationContextAware {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DispatcherWebscript.class);
-	private static final int EXTENSION_PATH_REGEXP_GROUP_INDEX = 3;
 
-	protected DispatcherServlet s;
+	/**
+	 * property of the servlet context environment telling whether the dispatcher
+	 * webscript has the async support enabled
+	 */
+	public static final String ASYNC_SUPPORTED_PROPERTY = "alfresco-mvc.async-supported";
+
+	/**
+	 * the executor of the servlet context running the async work, registered only
+	 * if the async support is enabled
+	 */
+	public static final String ASYNC_TASK_EXECUTOR_BEAN_NAME = "alfrescoMvcAsyncTaskExecutor";
+
+	protected volatile DispatcherServlet s;
 	private String contextConfigLocation;
 	private Class<?> contextClass;
 	private ApplicationContext applicationContext;
 	private ServletContext servletContext;
 
+	private int handlerCacheSize;
+	private String cacheControl = "no-cache";
+	private DispatcherWebscriptExceptionTranslator exceptionTranslator;
+	private boolean asyncSupported;
+	private boolean initializeOnRefresh = true;
+	private volatile Duration startupTime;
+	private volatile Executor asyncExecutor;
+
 	private final EnumSet<ServletConfigOptions> servletConfigOptions = EnumSet.noneOf(ServletConfigOptions.class);
 	private final String servletName;
 	private final boolean inheritGlobalProperties;
@@ -95,6 +135,7 @@ public class DispatcherWebscript extends AbstractWebScript
 				"[Assertion failed] - this String servletName must have text; it must not be null, empty, or blank");
 		this.servletName = servletName;
 		this.inheritGlobalProperties = inheritGlobalProperties;
+		this.exceptionTranslator = new DefaultDispatcherWebscriptExceptionTranslator();
 	}
 
 	public void execute(WebScriptRequest req, WebScriptResponse res) throws IOException {
@@ -113,47 +154,137 @@ public class DispatcherWebscript extends AbstractWebScript
 		}
 
 		final HttpServletResponse sr = wsr.getHttpServletResponse();
-		res.setHeader("Cache-Control", "no-cache");
+		if (StringUtils.hasText(cacheControl)) {
+			res.setHeader("Cache-Control", cacheControl);
+		}
 
-		WebscriptRequestWrapper wrapper = new WebscriptRequestWrapper(origReq);
+		WebscriptRequestWrapper wrapper = new WebscriptRequestWrapper(origReq, sr);
 		try {
 			// wrapper.setAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE, "/s/mvc");
 			s.service(wrapper, sr);
+			if (asyncSupported) {
+				serviceAsync(wrapper, sr);
+			}
 
 		} catch (Throwable e) {
-			LOGGER.error("Failed to call {}", origReq.getURL());
-			throw new IOException(e);
+			exceptionTranslator.translate(e, wrapper, sr);
+		}
+	}
+
+	/**
+	 * waits for the async processing started while handling the request and
+	 * performs the async dispatches on the webscript thread, the webscript
+	 * runtime always gets a completed response. The webscript (container) thread
+	 * is therefore blocked until the async processing ends or times out, the
+	 * async support does not release it.
+	 */
+	private void serviceAsync(final WebscriptRequestWrapper wrapper, final HttpServletResponse sr)
+			throws ServletException, IOException {
+		WebscriptAsyncContext asyncContext;
+		while ((asyncContext = wrapper.getActiveAsyncContext()) != null) {
+			try {
+				boolean dispatch = asyncContext.await();
+				asyncContext.finish();
+				if (dispatch) {
+					wrapper.dispatcherType = DispatcherType.ASYNC;
+					s.service(wrapper, sr);
+				} else if (asyncContext.isTimedOut()) {
+					LOGGER.warn("Async processing of {} timed out", wrapper.getRequestURI());
+					sr.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				asyncContext.finish();
+				asyncContext.onError(e);
+				throw new IOException(e);
+			} catch (ServletException | IOException | RuntimeException e) {
+				asyncContext.onError(e);
+				throw e;
+			} finally {
+				asyncContext.onComplete();
+			}
 		}
 	}
 
 	public void onApplicationEvent(ContextRefreshedEvent event) {
 		ApplicationContext refreshContext = event.getApplicationContext();
-		if (refreshContext != null && refreshContext.equals(applicationContext)) {
-
-			s = new DispatcherWebscriptServlet((WebApplicationContext) applicationContext, this, servletName);
-
-			if (!servletConfigOptions.isEmpty()) {
-				s.setDetectAllHandlerMappings(
-						!servletConfigOptions.contains(ServletConfigOptions.DISABLED_PARENT_HANDLER_MAPPINGS));
-				s.setDetectAllHandlerAdapters(
-						!servletConfigOptions.contains(ServletConfigOptions.DISABLED_PARENT_HANDLER_ADAPTERS));
-				s.setDetectAllViewResolvers(
-						!servletConfigOptions.contains(ServletConfigOptions.DISABLED_PARENT_VIEW_RESOLVERS));
-				s.setDetectAllHandlerExceptionResolvers(!servletConfigOptions
-						.contains(ServletConfigOptions.DISABLED_PARENT_HANDLER_EXCEPTION_RESOLVERS));
-			}
+		if (initializeOnRefresh && refreshContext != null && refreshContext.equals(applicationContext)) {
+			initDispatcherServlet();
+		}
+	}
 
-			s.setContextClass(contextClass != null ? contextClass : AnnotationConfigWebApplicationContext.class);
-			s.setContextConfigLocation(contextConfigLocation);
-			configureDispatcherServlet(s);
+	/**
+	 * creates and initializes the dispatcher servlet together with its child
+	 * {@link WebApplicationContext}, the elapsed time is available afterwards via
+	 * {@link #getStartupTime()}
+	 */
+	public void initDispatcherServlet() {
+		long start = System.nanoTime();
+
+		DispatcherWebscriptServlet dispatcherServlet = new DispatcherWebscriptServlet(
+				(WebApplicationContext) applicationContext, this, servletName);
+		dispatcherServlet.setHandlerCacheSize(handlerCacheSize);
+
+		if (!servletConfigOptions.isEmpty()) {
+			dispatcherServlet.setDetectAllHandlerMappings(
+					!servletConfigOptions.contains(ServletConfigOptions.DISABLED_PARENT_HANDLER_MAPPINGS));
+			dispatcherServlet.setDetectAllHandlerAdapters(
+					!servletConfigOptions.contains(ServletConfigOptions.DISABLED_PARENT_HANDLER_ADAPTERS));
+			dispatcherServlet.setDetectAllViewResolvers(
+					!servletConfigOptions.contains(ServletConfigOptions.DISABLED_PARENT_VIEW_RESOLVERS));
+			dispatcherServlet.setDetectAllHandlerExceptionResolvers(!servletConfigOptions
+					.contains(ServletConfigOptions.DISABLED_PARENT_HANDLER_EXCEPTION_RESOLVERS));
+		}
 
-			try {
-				s.init(new DelegatingServletConfig(servletName));
-				LOGGER.info("Alfresco @MVC Dispatcher Webscript: {} has been started", servletName);
-			} catch (ServletException e) {
-				throw new RuntimeException(e);
-			}
+		dispatcherServlet
+				.setContextClass(contextClass != null ? contextClass : AnnotationConfigWebApplicationContext.class);
+		dispatcherServlet.setContextConfigLocation(contextConfigLocation);
+		dispatcherServlet.getEnvironment().getPropertySources().addLast(new MapPropertySource(
+				"alfresco-mvc.dispatcherWebscript", Map.of(ASYNC_SUPPORTED_PROPERTY, asyncSupported)));
+		configureDispatcherServlet(dispatcherServlet);
+
+		try {
+			dispatcherServlet.init(new DelegatingServletConfig(servletName));
+			asyncExecutor = asyncSupported ? resolveAsyncExecutor(dispatcherServlet.getWebApplicationContext()) : null;
+		} catch (ServletException | RuntimeException e) {
+			// closes the child context if it has been refreshed before the failure
+			dispatcherServlet.destroy();
+			throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
 		}
+		s = dispatcherServlet;
+
+		startupTime = Duration.ofNanos(System.nanoTime() - start);
+		LOGGER.info("Alfresco @MVC Dispatcher Webscript: {} has been started in {} ms", servletName,
+				startupTime.toMillis());
+	}
+
+	/**
+	 * destroys the dispatcher servlet, if initialized, and closes its child
+	 * {@link WebApplicationContext}
+	 */
+	public void destroyDispatcherServlet() {
+		DispatcherServlet dispatcherServlet = s;
+		if (dispatcherServlet != null) {
+			s = null;
+			asyncExecutor = null;
+			startupTime = null;
+			dispatcherServlet.destroy();
+			LOGGER.info("Alfresco @MVC Dispatcher Webscript: {} has been destroyed", servletName);
+		}
+	}
+
+	/**
+	 * the executor of {@link AsyncContext#start(Runnable)}, the
+	 * {@value #ASYNC_TASK_EXECUTOR_BEAN_NAME} bean if the servlet context defines
+	 * one, otherwise the common pool with the Alfresco context propagated
+	 */
+	protected Executor resolveAsyncExecutor(WebApplicationContext servletContext) {
+		if (servletContext != null && servletContext.containsBean(ASYNC_TASK_EXECUTOR_BEAN_NAME)) {
+			return servletContext.getBean(ASYNC_TASK_EXECUTOR_BEAN_NAME, Executor.class);
+		}
+		TaskExecutorAdapter executor = new TaskExecutorAdapter(ForkJoinPool.commonPool());
+		executor.setTaskDecorator(new AlfrescoContextTaskDecorator());
+		return executor;
 	}
 
 	protected void configureDispatcherServlet(DispatcherServlet dispatcherServlet) {
@@ -177,6 +308,30 @@ public class DispatcherWebscript extends AbstractWebScript
 		return s;
 	}
 
+	public String getServletName() {
+		return servletName;
+	}
+
+	/**
+	 * @return the time spent initializing the dispatcher servlet or null if it
+	 *         has not been initialized yet
+	 */
+	public Duration getStartupTime() {
+		return startupTime;
+	}
+
+	/**
+	 * if false the dispatcher servlet is not initialized when the Alfresco
+	 * context is refreshed, see {@link DispatcherWebscriptInitializer}
+	 */
+	public void setInitializeOnRefresh(boolean initializeOnRefresh) {
+		this.initializeOnRefresh = initializeOnRefresh;
+	}
+
+	public boolean isInitializeOnRefresh() {
+		return initializeOnRefresh;
+	}
+
 	public String getContextConfigLocation() {
 		return contextConfigLocation;
 	}
@@ -209,6 +364,51 @@ public class DispatcherWebscript extends AbstractWebScript
 		return this.contextClass;
 	}
 
+	public void setHandlerCacheSize(int handlerCacheSize) {
+		this.handlerCacheSize = handlerCacheSize;
+	}
+
+	public int getHandlerCacheSize() {
+		return handlerCacheSize;
+	}
+
+	/**
+	 * the Cache-Control header set on every response before dispatching, a
+	 * controller might still override it. No header is set if empty.
+	 */
+	public void setCacheControl(String cacheControl) {
+		this.cacheControl = cacheControl;
+	}
+
+	public String getCacheControl() {
+		return cacheControl;
+	}
+
+	public void setExceptionTranslator(DispatcherWebscriptExceptionTranslator exceptionTranslator) {
+		Assert.notNull(exceptionTranslator, "[Assertion failed] - exceptionTranslator must not be null");
+		this.exceptionTranslator = exceptionTranslator;
+	}
+
+	public DispatcherWebscriptExceptionTranslator getExceptionTranslator() {
+		return exceptionTranslator;
+	}
+
+	/**
+	 * lets the controllers return {@link java.util.concurrent.Callable},
+	 * {@link org.springframework.web.context.request.async.DeferredResult} or
+	 * {@link java.util.concurrent.CompletableFuture}. The async work runs on
+	 * another thread while the webscript thread waits for it: the webscript
+	 * runtime needs a completed response, the container thread is not released
+	 * and stays busy for the whole request.
+	 */
+	public void setAsyncSupported(boolean asyncSupported) {
+		this.asyncSupported = asyncSupported;
+	}
+
+	public boolean isAsyncSupported() {
+		return asyncSupported;
+	}
+
 	public void addServletConfigOptions(ServletConfigOptions[] detectServletConfig) {
 		if (detectServletConfig != null) {
 			this.servletConfigOptions.addAll(Arrays.asList(detectServletConfig));
@@ -253,60 +453,144 @@ public class DispatcherWebscript extends AbstractWebScript
 	public class WebscriptRequestWrapper extends HttpServletRequestWrapper {
 
 		private WebScriptServletRequest origReq;
+		private HttpServletResponse response;
+		private ResolvedPath resolvedPath;
+		private WebscriptAsyncContext asyncContext;
+		private DispatcherType dispatcherType = DispatcherType.REQUEST;
 
 		public WebscriptRequestWrapper(WebScriptServletRequest request) {
 			super(request.getHttpServletRequest());
 			this.origReq = request;
 		}
 
+		public WebscriptRequestWrapper(WebScriptServletRequest request, HttpServletResponse response) {
+			this(request);
+			this.response = response;
+		}
+
 		@Override
 		public String getRequestURI() {
-			String uri = super.getRequestURI();
-			try {
-				uri = URLDecoder.decode(uri, StandardCharsets.UTF_8.toString());
-			} catch (UnsupportedEncodingException e) {
-				LOGGER.error(e.getMessage(), e);
-				return "";
+			return getResolvedPath().getRequestUri();
+		}
+
+		/**
+		 * the request path information is derived only once per request, the
+		 * wrapper is never shared between requests
+		 */
+		public ResolvedPath getResolvedPath() {
+			if (resolvedPath == null) {
+				String uri = super.getRequestURI();
+				LOGGER.debug("Processing [{}] {}", super.getMethod(), uri);
+
+				String extensionPath = origReq.getExtensionPath();
+				String requestUri = WebscriptUriRewriter.rewrite(uri, origReq.getServiceContextPath(), extensionPath);
+				LOGGER.debug("Found [{}] {} ---> {}", super.getMethod(), uri, requestUri);
+
+				resolvedPath = new ResolvedPath(extensionPath, requestUri);
 			}
+			return resolvedPath;
+		}
+
+		public String getContextPath() {
+			return "";
+		}
+
+		public String getServletPath() {
+			return "";
+		}
+
+		public WebScriptServletRequest getWebScriptServletRequest() {
+			return origReq;
+		}
 
-			LOGGER.debug("Processing [{}] {}", super.getMethod(), uri);
+		@Override
+		public DispatcherType getDispatcherType() {
+			return dispatcherType;
+		}
+
+		/**
+		 * the container request is never put in async mode, see
+		 * {@link DispatcherWebscript#setAsyncSupported(boolean)}
+		 */
+		@Override
+		public boolean isAsyncSupported() {
+			return asyncSupported;
+		}
 
-			if (uri.contains("$")) {
-				uri = uri.replaceAll("\\$", "%24");
+		@Override
+		public AsyncContext startAsync() {
+			if (response == null) {
+				throw new IllegalStateException("No response available to start the async processing");
 			}
+			return startAsync(this, response);
+		}
 
-			String origUri = origReq.getExtensionPath();
-			if (origUri.contains("$")) {
-				origUri = origUri.replaceAll("\\$", "%24");
+		@Override
+		public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+			if (!asyncSupported) {
+				throw new IllegalStateException(
+						"Async support is not enabled for the dispatcher webscript " + servletName);
+			}
+			if (asyncContext != null && asyncContext.isActive()) {
+				throw new IllegalStateException("Async processing has already been started");
 			}
 
-			Pattern pattern = Pattern.compile(
-					"(^" + origReq.getServiceContextPath() + "/)" + "(.*)" + "(/" + Pattern.quote(origUri) + ")");
-			Matcher matcher = pattern.matcher(uri);
-			if (matcher.find()) {
+			WebscriptAsyncContext previous = asyncContext;
+			asyncContext = new WebscriptAsyncContext(servletRequest, servletResponse,
+					servletRequest == this && servletResponse == response, asyncExecutor);
+			if (previous != null) {
 				try {
-					String result = matcher.group(EXTENSION_PATH_REGEXP_GROUP_INDEX);
-					LOGGER.debug("Found [{}] {} ---> {}", super.getMethod(), uri, result);
-					return result;
-				} catch (Exception e) {
-					// let an empty string be returned
-					LOGGER.warn("no such group (3) in regexp while URI evaluation", e);
+					previous.onStartAsync(asyncContext);
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
 				}
 			}
+			return asyncContext;
+		}
 
-			return "";
+		@Override
+		public boolean isAsyncStarted() {
+			return getActiveAsyncContext() != null;
 		}
 
-		public String getContextPath() {
-			return "";
+		@Override
+		public AsyncContext getAsyncContext() {
+			if (asyncContext == null) {
+				throw new IllegalStateException("Async processing has not been started");
+			}
+			return asyncContext;
 		}
 
-		public String getServletPath() {
-			return "";
+		private WebscriptAsyncContext getActiveAsyncContext() {
+			return asyncContext != null && asyncContext.isActive() ? asyncContext : null;
 		}
+	}
 
-		public WebScriptServletRequest getWebScriptServletRequest() {
-			return origReq;
+	/**
+	 * immutable request path information of a {@link WebscriptRequestWrapper}
+	 */
+	public static final class ResolvedPath {
+
+		private final String extensionPath;
+		private final String requestUri;
+
+		public ResolvedPath(final String extensionPath, final String requestUri) {
+			this.extensionPath = extensionPath;
+			this.requestUri = requestUri;
+		}
+
+		/**
+		 * @return the webscript extension path as provided by Alfresco
+		 */
+		public String getExtensionPath() {
+			return extensionPath;
+		}
+
+		/**
+		 * @return the request URI as seen by the Spring MVC controllers
+		 */
+		public String getRequestUri() {
+			return requestUri;
 		}
 	}
 
@@ -321,6 +605,9 @@ public class DispatcherWebscript extends AbstractWebScript
 		private final WebApplicationContext applicationContext;
 		private final DispatcherWebscript dispatcherWebscript;
 
+		private transient Map<String, CachedHandler> handlerCache;
+		private transient volatile List<RequestMappingInfo> conditionalMappings;
+
 		public DispatcherWebscriptServlet(WebApplicationContext applicationContext,
 				DispatcherWebscript dispatcherWebscript, String servletName) {
 			super(applicationContext);
@@ -379,6 +666,149 @@ public class DispatcherWebscript extends AbstractWebScript
 		public DispatcherWebscript getDispatcherWebscript() {
 			return this.dispatcherWebscript;
 		}
+
+		/**
+		 * enables a bounded LRU cache of the resolved handlers keyed by the HTTP
+		 * method, the request URI and the content negotiation headers. A value lower
+		 * than 1 disables the cache.
+		 */
+		public void setHandlerCacheSize(final int handlerCacheSize) {
+			if (handlerCacheSize < 1) {
+				this.handlerCache = null;
+				return;
+			}
+
+			this.handlerCache = new LinkedHashMap<String, CachedHandler>(16, 0.75f, true) {
+				private static final long serialVersionUID = 4264337297436950284L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, CachedHandler> eldest) {
+					return size() > handlerCacheSize;
+				}
+			};
+		}
+
+		@Override
+		protected void onRefresh(ApplicationContext context) {
+			if (handlerCache != null) {
+				synchronized (handlerCache) {
+					handlerCache.clear();
+				}
+			}
+			conditionalMappings = null;
+			super.onRefresh(context);
+		}
+
+		@Override
+		protected HandlerExecutionChain getHandler(HttpServletRequest request) throws Exception {
+			Map<String, CachedHandler> cache = this.handlerCache;
+			if (cache == null || !(request instanceof WebscriptRequestWrapper) || CorsUtils.isCorsRequest(request)) {
+				return super.getHandler(request);
+			}
+
+			String key = getHandlerCacheKey((WebscriptRequestWrapper) request);
+			CachedHandler cachedHandler;
+			synchronized (cache) {
+				cachedHandler = cache.get(key);
+			}
+			if (cachedHandler != null) {
+				return cachedHandler.apply(request);
+			}
+
+			Map<String, Object> attributesBefore = getAttributes(request);
+			HandlerExecutionChain handler = super.getHandler(request);
+			if (handler != null && handler.getHandler() instanceof HandlerMethod && isCacheable(request)) {
+				Map<String, Object> attributes = getAttributes(request);
+				attributes.entrySet().removeIf(entry -> entry.getValue() == attributesBefore.get(entry.getKey()));
+
+				cachedHandler = new CachedHandler(handler.getHandler(), handler.getInterceptorList(), attributes);
+				synchronized (cache) {
+					cache.put(key, cachedHandler);
+				}
+			}
+			return handler;
+		}
+
+		private String getHandlerCacheKey(final WebscriptRequestWrapper request) {
+			return request.getMethod() + " " + request.getResolvedPath().getRequestUri() + "\n"
+					+ request.getHeader(HttpHeaders.CONTENT_TYPE) + "\n" + request.getHeader(HttpHeaders.ACCEPT);
+		}
+
+		/**
+		 * a lookup is not cacheable if a mapping with params, headers or custom
+		 * conditions could have matched the request, since those conditions are not
+		 * part of the cache key
+		 */
+		private boolean isCacheable(final HttpServletRequest request) {
+			for (RequestMappingInfo mapping : getConditionalMappings()) {
+				if (mapping.getActivePatternsCondition().getMatchingCondition(request) != null) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private List<RequestMappingInfo> getConditionalMappings() {
+			List<RequestMappingInfo> mappings = this.conditionalMappings;
+			if (mappings == null) {
+				mappings = new ArrayList<>();
+				List<HandlerMapping> handlerMappings = getHandlerMappings();
+				if (handlerMappings != null) {
+					for (HandlerMapping handlerMapping : handlerMappings) {
+						if (handlerMapping instanceof RequestMappingInfoHandlerMapping) {
+							for (RequestMappingInfo info : ((RequestMappingInfoHandlerMapping) handlerMapping)
+									.getHandlerMethods().keySet()) {
+								if (!info.getParamsCondition().isEmpty() || !info.getHeadersCondition().isEmpty()
+										|| info.getCustomCondition() != null) {
+									mappings.add(info);
+								}
+							}
+						}
+					}
+				}
+				this.conditionalMappings = mappings;
+			}
+			return mappings;
+		}
+
+		private static Map<String, Object> getAttributes(final HttpServletRequest request) {
+			Map<String, Object> attributes = new HashMap<>();
+			Enumeration<String> names = request.getAttributeNames();
+			while (names.hasMoreElements()) {
+				String name = names.nextElement();
+				attributes.put(name, request.getAttribute(name));
+			}
+			return attributes;
+		}
+	}
+
+	/**
+	 * a resolved handler together with the request attributes exposed by the
+	 * handler mapping while resolving it
+	 */
+	private static final class CachedHandler {
+
+		private final Object handler;
+		private final List<HandlerInterceptor> interceptors;
+		private final Map<String, Object> attributes;
+
+		private CachedHandler(final Object handler, final List<HandlerInterceptor> interceptors,
+				final Map<String, Object> attributes) {
+			this.handler = handler;
+			this.interceptors = new ArrayList<>(interceptors);
+			this.attributes = attributes;
+		}
+
+		private HandlerExecutionChain apply(final HttpServletRequest request) {
+			for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+				Object value = attribute.getValue();
+				// maps such as the URI template variables are copied, they might be
+				// modified while handling the request
+				request.setAttribute(attribute.getKey(),
+						value instanceof Map ? new LinkedHashMap<>((Map<?, ?>) value) : value);
+			}
+			return new HandlerExecutionChain(handler, interceptors);
+		}
 	}
 
 }
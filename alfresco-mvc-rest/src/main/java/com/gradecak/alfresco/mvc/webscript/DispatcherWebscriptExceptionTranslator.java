@@ -0,0 +1,40 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.webscript;
+
+import java.io.IOException;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript.WebscriptRequestWrapper;
+
+/**
+ * translates a failure that escaped the Spring MVC exception handling of a
+ * {@link DispatcherWebscript} into a response or into an exception handled by
+ * the webscript runtime
+ */
+public interface DispatcherWebscriptExceptionTranslator {
+
+	/**
+	 * @param failure  the failure thrown while dispatching the request
+	 * @param request  the request being dispatched
+	 * @param response the servlet response
+	 * @throws IOException if the failure has to be handled by the webscript
+	 *                     runtime
+	 */
+	void translate(Throwable failure, WebscriptRequestWrapper request, HttpServletResponse response)
+			throws IOException;
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.webscript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * initializes the {@link DispatcherWebscript}s that are not initialized on
+ * refresh (see {@link DispatcherWebscript#setInitializeOnRefresh(boolean)}) in
+ * parallel on a bounded pool once the Alfresco context has been refreshed.
+ * <p>
+ * The initialization fails fast: the first failure cancels the pending
+ * dispatchers and waits for the running ones. The dispatchers that have been
+ * started are then destroyed, so that no child context is left open, and the
+ * failure is rethrown with the failures of the other dispatchers attached as
+ * suppressed exceptions.
+ */
+public class DispatcherWebscriptInitializer
+		implements ApplicationListener<ContextRefreshedEvent>, ApplicationContextAware {
+
+	public static final String BEAN_NAME = "alfresco-mvc.dispatcherWebscriptInitializer";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DispatcherWebscriptInitializer.class);
+
+	private ApplicationContext applicationContext;
+	private int threads = 4;
+	private volatile Map<String, Duration> startupTimes = Collections.emptyMap();
+
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		ApplicationContext refreshContext = event.getApplicationContext();
+		if (refreshContext != null && refreshContext.equals(applicationContext)) {
+			List<DispatcherWebscript> dispatcherWebscripts = new ArrayList<>();
+			for (DispatcherWebscript dispatcherWebscript : applicationContext
+					.getBeansOfType(DispatcherWebscript.class, false, false).values()) {
+				if (!dispatcherWebscript.isInitializeOnRefresh()) {
+					dispatcherWebscripts.add(dispatcherWebscript);
+				}
+			}
+			initialize(dispatcherWebscripts);
+		}
+	}
+
+	/**
+	 * initializes the given dispatchers in parallel and waits until all of them
+	 * have been started
+	 */
+	public void initialize(final List<DispatcherWebscript> dispatcherWebscripts) {
+		if (dispatcherWebscripts.isEmpty()) {
+			return;
+		}
+
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, dispatcherWebscripts.size()),
+				new CustomizableThreadFactory("alfresco-mvc-init-"));
+		CompletionService<DispatcherWebscript> completionService = new ExecutorCompletionService<>(executor);
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+		List<Future<DispatcherWebscript>> futures = new ArrayList<>();
+		try {
+			for (DispatcherWebscript dispatcherWebscript : dispatcherWebscripts) {
+				futures.add(completionService.submit(() -> {
+					Thread.currentThread().setContextClassLoader(classLoader);
+					dispatcherWebscript.initDispatcherServlet();
+					return dispatcherWebscript;
+				}));
+			}
+
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					completionService.take().get();
+				} catch (ExecutionException e) {
+					throw fail(e.getCause(), dispatcherWebscripts, futures, executor);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw fail(e, dispatcherWebscripts, futures, executor);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Map<String, Duration> times = new LinkedHashMap<>();
+		for (DispatcherWebscript dispatcherWebscript : dispatcherWebscripts) {
+			times.put(dispatcherWebscript.getServletName(), dispatcherWebscript.getStartupTime());
+		}
+		startupTimes = Collections.unmodifiableMap(times);
+
+		LOGGER.info("Alfresco @MVC {} Dispatcher Webscripts have been started in {} ms: {}",
+				dispatcherWebscripts.size(), Duration.ofNanos(System.nanoTime() - start).toMillis(), times);
+	}
+
+	private IllegalStateException fail(final Throwable cause, final List<DispatcherWebscript> dispatcherWebscripts,
+			final List<Future<DispatcherWebscript>> futures, final ExecutorService executor) {
+		// a context being refreshed is not interrupted, the running dispatchers
+		// complete and are destroyed below
+		for (Future<DispatcherWebscript> future : futures) {
+			future.cancel(false);
+		}
+		executor.shutdown();
+		awaitTermination(executor);
+
+		IllegalStateException exception = new IllegalStateException(
+				"Alfresco @MVC Dispatcher Webscripts could not be started", cause);
+		for (Future<DispatcherWebscript> future : futures) {
+			if (future.isDone() && !future.isCancelled()) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					if (e.getCause() != cause) {
+						exception.addSuppressed(e.getCause());
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		for (DispatcherWebscript dispatcherWebscript : dispatcherWebscripts) {
+			try {
+				dispatcherWebscript.destroyDispatcherServlet();
+			} catch (RuntimeException e) {
+				exception.addSuppressed(e);
+			}
+		}
+		return exception;
+	}
+
+	private static void awaitTermination(final ExecutorService executor) {
+		boolean interrupted = false;
+		try {
+			while (!executor.isTerminated()) {
+				try {
+					executor.awaitTermination(1, TimeUnit.MINUTES);
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * @return the startup time of each dispatcher initialized by this
+	 *         initializer, keyed by the servlet name
+	 */
+	public Map<String, Duration> getStartupTimes() {
+		return startupTimes;
+	}
+
+	public void setThreads(int threads) {
+		Assert.isTrue(threads > 0, "[Assertion failed] - threads must be greater than 0");
+		this.threads = threads;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setApplicationContext(ApplicationContext applicationContext) {
+		this.applicationContext = applicationContext;
+	}
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.webscript;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanInstantiationException;
+
+/**
+ * {@link AsyncContext} emulated on top of a webscript request. The webscript
+ * runtime expects a completed response once the webscript returns, the
+ * container request is therefore never put in async mode: the webscript thread
+ * waits until the async processing is dispatched, completed or timed out and
+ * performs the async dispatch itself. The container thread is not released
+ * while the async processing runs.
+ */
+final class WebscriptAsyncContext implements AsyncContext {
+
+	static final long DEFAULT_TIMEOUT = 30000L;
+
+	private enum State {
+		STARTED, DISPATCHING, COMPLETING, TIMED_OUT
+	}
+
+	private final ServletRequest request;
+	private final ServletResponse response;
+	private final boolean originalRequestAndResponse;
+	private final Executor executor;
+	private final List<RegisteredListener> listeners = new CopyOnWriteArrayList<>();
+
+	private State state = State.STARTED;
+	private volatile boolean active = true;
+	private long timeout = DEFAULT_TIMEOUT;
+
+	WebscriptAsyncContext(final ServletRequest request, final ServletResponse response,
+			final boolean originalRequestAndResponse, final Executor executor) {
+		this.request = request;
+		this.response = response;
+		this.originalRequestAndResponse = originalRequestAndResponse;
+		this.executor = executor;
+	}
+
+	@Override
+	public ServletRequest getRequest() {
+		return request;
+	}
+
+	@Override
+	public ServletResponse getResponse() {
+		return response;
+	}
+
+	@Override
+	public boolean hasOriginalRequestAndResponse() {
+		return originalRequestAndResponse;
+	}
+
+	@Override
+	public void dispatch() {
+		synchronized (this) {
+			if (state != State.STARTED && state != State.TIMED_OUT) {
+				throw new IllegalStateException("Async processing has already been dispatched or completed");
+			}
+			state = State.DISPATCHING;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * the dispatch always targets the dispatcher webscript, the path is ignored
+	 */
+	@Override
+	public void dispatch(final String path) {
+		dispatch();
+	}
+
+	/**
+	 * the dispatch always targets the dispatcher webscript, the context and the
+	 * path are ignored
+	 */
+	@Override
+	public void dispatch(final ServletContext context, final String path) {
+		dispatch();
+	}
+
+	@Override
+	public void complete() {
+		synchronized (this) {
+			if (state == State.STARTED || state == State.TIMED_OUT) {
+				state = State.COMPLETING;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * runs on the async executor of the dispatcher webscript, with the Alfresco
+	 * context of the request
+	 */
+	@Override
+	public void start(final Runnable run) {
+		executor.execute(run);
+	}
+
+	@Override
+	public void addListener(final AsyncListener listener) {
+		addListener(listener, request, response);
+	}
+
+	@Override
+	public void addListener(final AsyncListener listener, final ServletRequest servletRequest,
+			final ServletResponse servletResponse) {
+		listeners.add(new RegisteredListener(listener, new AsyncEvent(this, servletRequest, servletResponse)));
+	}
+
+	@Override
+	public <T extends AsyncListener> T createListener(final Class<T> clazz) throws ServletException {
+		try {
+			return BeanUtils.instantiateClass(clazz);
+		} catch (BeanInstantiationException e) {
+			throw new ServletException(e);
+		}
+	}
+
+	@Override
+	public void setTimeout(final long timeout) {
+		this.timeout = timeout;
+	}
+
+	@Override
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * @return true until the webscript thread took over the async processing
+	 *         again, even if a dispatch has already been requested
+	 */
+	boolean isActive() {
+		return active;
+	}
+
+	void finish() {
+		active = false;
+	}
+
+	/**
+	 * blocks until the async processing is dispatched or completed. Once the
+	 * timeout elapsed the listeners are notified, they usually dispatch a timeout
+	 * result.
+	 *
+	 * @return true if the request has to be dispatched, false if the processing
+	 *         is complete or nobody reacted to the timeout
+	 */
+	boolean await() throws InterruptedException, IOException {
+		if (!awaitDispatchOrComplete()) {
+			synchronized (this) {
+				state = State.TIMED_OUT;
+			}
+			for (RegisteredListener listener : listeners) {
+				listener.listener.onTimeout(listener.event);
+			}
+		}
+
+		synchronized (this) {
+			return state == State.DISPATCHING;
+		}
+	}
+
+	synchronized boolean isTimedOut() {
+		return state == State.TIMED_OUT;
+	}
+
+	void onStartAsync(final AsyncContext asyncContext) throws IOException {
+		for (RegisteredListener listener : listeners) {
+			listener.listener.onStartAsync(new AsyncEvent(asyncContext, listener.event.getSuppliedRequest(),
+					listener.event.getSuppliedResponse()));
+		}
+		listeners.clear();
+	}
+
+	void onError(final Throwable failure) throws IOException {
+		for (RegisteredListener listener : listeners) {
+			listener.listener.onError(new AsyncEvent(this, listener.event.getSuppliedRequest(),
+					listener.event.getSuppliedResponse(), failure));
+		}
+	}
+
+	void onComplete() throws IOException {
+		for (RegisteredListener listener : listeners) {
+			listener.listener.onComplete(listener.event);
+		}
+		listeners.clear();
+	}
+
+	private synchronized boolean awaitDispatchOrComplete() throws InterruptedException {
+		long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+		while (state == State.STARTED) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				return false;
+			}
+			wait(remaining);
+		}
+		return true;
+	}
+
+	private static final class RegisteredListener {
+
+		private final AsyncListener listener;
+		private final AsyncEvent event;
+
+		private RegisteredListener(final AsyncListener listener, final AsyncEvent event) {
+			this.listener = listener;
+			this.event = event;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.webscript;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * rewrites the URI of an incoming webscript request into the path seen by the
+ * Spring MVC controllers, i.e. the webscript extension path prefixed with a
+ * slash.
+ * <p>
+ * The service context path is a plain prefix for almost every deployment, in
+ * that case the rewriting is done with index arithmetic only. A service context
+ * path containing regular expression characters is still honoured as a regular
+ * expression (as it always was), its compiled prefix pattern is then cached per
+ * service context path.
+ */
+public final class WebscriptUriRewriter {
+
+	private static final String REGEXP_CHARS = "\\^$.|?*+()[]{}";
+	private static final String DOLLAR = "$";
+	private static final String ENCODED_DOLLAR = "%24";
+
+	private static final Map<String, Pattern> PREFIX_PATTERNS = new ConcurrentHashMap<>();
+
+	private WebscriptUriRewriter() {
+	}
+
+	/**
+	 * @param requestUri         the raw (encoded) request URI
+	 * @param serviceContextPath the webscript service context path
+	 * @param extensionPath      the (decoded) webscript extension path
+	 * @return the controller path or an empty string if the request URI does not
+	 *         belong to the service context path
+	 */
+	public static String rewrite(final String requestUri, final String serviceContextPath,
+			final String extensionPath) {
+		String uri = encodeDollar(URLDecoder.decode(requestUri, StandardCharsets.UTF_8));
+		String path = "/" + encodeDollar(extensionPath);
+
+		int index = uri.lastIndexOf(path);
+		if (index < 0 || !startsWithServiceContextPath(uri, serviceContextPath, index)) {
+			return "";
+		}
+		return path;
+	}
+
+	/**
+	 * @return true if "serviceContextPath/" is a prefix of the uri ending at or
+	 *         before the given index
+	 */
+	private static boolean startsWithServiceContextPath(final String uri, final String serviceContextPath,
+			final int index) {
+		if (!containsRegexpChars(serviceContextPath)) {
+			int length = serviceContextPath.length();
+			return length < index && uri.startsWith(serviceContextPath) && uri.charAt(length) == '/';
+		}
+
+		Pattern pattern = PREFIX_PATTERNS.computeIfAbsent(serviceContextPath,
+				key -> Pattern.compile("^" + key + "/"));
+		Matcher matcher = pattern.matcher(uri);
+		matcher.region(0, index);
+		return matcher.lookingAt();
+	}
+
+	private static boolean containsRegexpChars(final String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (REGEXP_CHARS.indexOf(value.charAt(i)) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String encodeDollar(final String value) {
+		return value.contains(DOLLAR) ? value.replace(DOLLAR, ENCODED_DOLLAR) : value;
+	}
+}
@@ -17,11 +17,22 @@
 package com.gradecak.alfresco.mvc.controller;
 
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 
+import org.alfresco.repo.security.permissions.AccessDeniedException;
+import org.alfresco.rest.framework.resource.parameters.CollectionWithPagingInfo;
+import org.alfresco.rest.framework.resource.parameters.Paging;
+import org.alfresco.rest.framework.resource.parameters.Params;
 import org.alfresco.service.cmr.repository.NodeRef;
 import org.alfresco.service.namespace.QName;
 import org.springframework.core.io.ClassPathResource;
@@ -39,7 +50,9 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import com.gradecak.alfresco.mvc.rest.annotation.AlfrescoNodeETag;
 import com.gradecak.alfresco.mvc.rest.annotation.AlfrescoRestResponse;
 
 @Controller
@@ -125,6 +138,12 @@ public class TestController {
 		return ResponseEntity.ok(nodeRef);
 	}
 
+	@AlfrescoNodeETag
+	@GetMapping(value = "etag/{nodeRef}")
+	public ResponseEntity<NodeRef> etag(@PathVariable NodeRef nodeRef) throws IOException {
+		return ResponseEntity.ok(nodeRef);
+	}
+
 	@GetMapping(value = "qname")
 	public ResponseEntity<QName> qnameParam(@RequestParam(required = false) QName qname) throws IOException {
 		return ResponseEntity.ok(qname != null ? qname : QName.createQName("uri", "created"));
@@ -141,6 +160,51 @@ public class TestController {
 		return ResponseEntity.ok(new NodeRef("a://a/a"));
 	}
 
+	@AlfrescoGetMapping("composedAlfrescoResponse")
+	public ResponseEntity<?> composedAlfrescoResponse() {
+		return ResponseEntity.ok(Map.of("a", "b"));
+	}
+
+	@GetMapping(value = "params")
+	@AlfrescoRestResponse
+	public ResponseEntity<?> params(Params params) {
+		return ResponseEntity.ok(Map.of("params", params));
+	}
+
+	@GetMapping(value = "stream")
+	public ResponseEntity<Stream<NodeRef>> stream() {
+		return ResponseEntity.ok(Stream.of(new NodeRef("a://a/a"), new NodeRef("b://b/b")));
+	}
+
+	@GetMapping(value = "streamAlfrescoResponse")
+	@AlfrescoRestResponse
+	public ResponseEntity<Iterator<String>> streamAlfrescoResponse() {
+		return ResponseEntity.ok(List.of("a", "b").iterator());
+	}
+
+	@GetMapping(value = "streamAlfrescoResponse/{size}")
+	@AlfrescoRestResponse
+	public ResponseEntity<Stream<String>> streamAlfrescoResponse(@PathVariable int size) {
+		return ResponseEntity.ok(IntStream.range(0, size).mapToObj(String::valueOf));
+	}
+
+	@GetMapping(value = "pagedAlfrescoResponse/{size}")
+	@AlfrescoRestResponse
+	public ResponseEntity<CollectionWithPagingInfo<String>> pagedAlfrescoResponse(@PathVariable int size,
+			Params params) {
+		Paging paging = params.getPaging();
+		List<String> entries = IntStream.range(0, Math.min(size, paging.getMaxItems())).mapToObj(String::valueOf)
+				.collect(Collectors.toList());
+		boolean hasMoreItems = size > paging.getMaxItems();
+		return ResponseEntity.ok(CollectionWithPagingInfo.asPaged(paging, entries, hasMoreItems,
+				hasMoreItems ? null : paging.getSkipCount() + entries.size()));
+	}
+
+	@RequestMapping(value = "/accessDenied", method = { RequestMethod.GET })
+	public ResponseEntity<?> accessDenied() {
+		throw new AccessDeniedException("test access denied");
+	}
+
 	@RequestMapping(value = "/exceptionHandler", method = { RequestMethod.GET })
 	public ResponseEntity<?> exceptionHandler() {
 		throw new IllegalArgumentException("test exception");
@@ -151,6 +215,40 @@ public class TestController {
 		return ResponseEntity.ok(regexpchars);
 	}
 
+	@GetMapping(value = "async/callable")
+	public Callable<ResponseEntity<?>> asyncCallable(@RequestParam String id) {
+		return () -> ResponseEntity.ok(id);
+	}
+
+	@GetMapping(value = "async/callableThread")
+	public Callable<ResponseEntity<?>> asyncCallableThread() {
+		return () -> ResponseEntity.ok(Thread.currentThread().getName());
+	}
+
+	@GetMapping(value = "async/callableFailure")
+	public Callable<ResponseEntity<?>> asyncCallableFailure() {
+		return () -> {
+			throw new IllegalArgumentException("test async exception");
+		};
+	}
+
+	@GetMapping(value = "async/deferred")
+	public DeferredResult<ResponseEntity<?>> asyncDeferred(@RequestParam String id) {
+		DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+		CompletableFuture.runAsync(() -> result.setResult(ResponseEntity.ok(id)));
+		return result;
+	}
+
+	@GetMapping(value = "async/deferredTimeout")
+	public DeferredResult<ResponseEntity<?>> asyncDeferredTimeout() {
+		return new DeferredResult<>(50L);
+	}
+
+	@GetMapping(value = "async/future")
+	public CompletableFuture<ResponseEntity<?>> asyncFuture(@RequestParam String id) {
+		return CompletableFuture.supplyAsync(() -> ResponseEntity.ok(id));
+	}
+
 	@ExceptionHandler({ IllegalArgumentException.class })
 	public ResponseEntity<?> handleIllegalArgumentException(IllegalArgumentException exc) {
 		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).header("error", "internal server error").build();
@@ -0,0 +1,201 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.config;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.alfresco.service.cmr.repository.NodeRef;
+import org.alfresco.service.namespace.NamespaceService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.Mockito;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * compares the throughput of the ObjectMapper with and without a property
+ * accessor module on node DTOs. Run with -Dalfresco-mvc.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "alfresco-mvc.benchmark", matches = "true")
+public class PropertyAccessorModuleBenchmarkTest {
+
+	private static final int NODES = 100;
+	private static final int WARMUP_ITERATIONS = 20000;
+	private static final int ITERATIONS = 50000;
+
+	@Test
+	public void benchmark() throws Exception {
+		ObjectMapper reflection = new DefaultAlfrescoMvcServletContextConfiguration(null,
+				Mockito.mock(NamespaceService.class)) {
+			@Override
+			protected void customizeJackson2ObjectMapperBuilder(Jackson2ObjectMapperBuilder builder) {
+				builder.findModulesViaServiceLoader(false);
+			}
+		}.objectMapper();
+		ObjectMapper accessors = new DefaultAlfrescoMvcServletContextConfiguration(null,
+				Mockito.mock(NamespaceService.class)) {
+			@Override
+			protected boolean propertyAccessorModuleEnabled() {
+				return true;
+			}
+		}.objectMapper();
+		Assertions.assertFalse(reflection.getRegisteredModuleIds().contains(BlackbirdModule.class.getName()));
+		Assertions.assertTrue(accessors.getRegisteredModuleIds().contains(BlackbirdModule.class.getName()));
+
+		List<NodeDto> nodes = new ArrayList<>();
+		for (int i = 0; i < NODES; i++) {
+			nodes.add(new NodeDto(new NodeRef("workspace://SpacesStore/node-" + i), "node-" + i + ".txt", i * 1024L));
+		}
+		Assertions.assertEquals(reflection.writeValueAsString(nodes), accessors.writeValueAsString(nodes));
+
+		run("reflection", reflection, nodes, WARMUP_ITERATIONS);
+		run("blackbird", accessors, nodes, WARMUP_ITERATIONS);
+		System.out.println(run("reflection", reflection, nodes, ITERATIONS));
+		System.out.println(run("blackbird", accessors, nodes, ITERATIONS));
+	}
+
+	private String run(String name, ObjectMapper objectMapper, List<NodeDto> nodes, int iterations)
+			throws Exception {
+		TypeReference<List<NodeDto>> type = new TypeReference<List<NodeDto>>() {
+		};
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			byte[] json = objectMapper.writeValueAsBytes(nodes);
+			Assertions.assertEquals(NODES, objectMapper.readValue(json, type).size());
+		}
+		long elapsed = System.nanoTime() - start;
+		return String.format("%s: %d lists of %d nodes written and read per second", name,
+				iterations * 1_000_000_000L / elapsed, NODES);
+	}
+
+	public static class NodeDto {
+		private NodeRef nodeRef;
+		private String name;
+		private String nodeType = "cm:content";
+		private boolean folder;
+		private long sizeInBytes;
+		private String mimeType = "text/plain";
+		private Date createdAt = new Date(0);
+		private Date modifiedAt = new Date(0);
+		private String createdBy = "admin";
+		private String modifiedBy = "admin";
+		private List<String> aspectNames = List.of("cm:auditable", "cm:titled", "sys:referenceable");
+
+		public NodeDto() {
+		}
+
+		public NodeDto(final NodeRef nodeRef, final String name, final long sizeInBytes) {
+			this.nodeRef = nodeRef;
+			this.name = name;
+			this.sizeInBytes = sizeInBytes;
+		}
+
+		public NodeRef getNodeRef() {
+			return nodeRef;
+		}
+
+		public void setNodeRef(NodeRef nodeRef) {
+			this.nodeRef = nodeRef;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getNodeType() {
+			return nodeType;
+		}
+
+		public void setNodeType(String nodeType) {
+			this.nodeType = nodeType;
+		}
+
+		public boolean isFolder() {
+			return folder;
+		}
+
+		public void setFolder(boolean folder) {
+			this.folder = folder;
+		}
+
+		public long getSizeInBytes() {
+			return sizeInBytes;
+		}
+
+		public void setSizeInBytes(long sizeInBytes) {
+			this.sizeInBytes = sizeInBytes;
+		}
+
+		public String getMimeType() {
+			return mimeType;
+		}
+
+		public void setMimeType(String mimeType) {
+			this.mimeType = mimeType;
+		}
+
+		public Date getCreatedAt() {
+			return createdAt;
+		}
+
+		public void setCreatedAt(Date createdAt) {
+			this.createdAt = createdAt;
+		}
+
+		public Date getModifiedAt() {
+			return modifiedAt;
+		}
+
+		public void setModifiedAt(Date modifiedAt) {
+			this.modifiedAt = modifiedAt;
+		}
+
+		public String getCreatedBy() {
+			return createdBy;
+		}
+
+		public void setCreatedBy(String createdBy) {
+			this.createdBy = createdBy;
+		}
+
+		public String getModifiedBy() {
+			return modifiedBy;
+		}
+
+		public void setModifiedBy(String modifiedBy) {
+			this.modifiedBy = modifiedBy;
+		}
+
+		public List<String> getAspectNames() {
+			return aspectNames;
+		}
+
+		public void setAspectNames(List<String> aspectNames) {
+			this.aspectNames = aspectNames;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.config;
+
+import org.alfresco.service.namespace.NamespaceService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+public class PropertyAccessorModuleTest {
+
+	@Test
+	public void when_propertyAccessorModuleIsDisabled_expect_notCreated() {
+		DefaultAlfrescoMvcServletContextConfiguration configuration = new DefaultAlfrescoMvcServletContextConfiguration(
+				null, Mockito.mock(NamespaceService.class)) {
+			@Override
+			protected Module createPropertyAccessorModule() {
+				throw new AssertionError("the module must not be created");
+			}
+		};
+		Assertions.assertFalse(configuration.objectMapper().getRegisteredModuleIds().contains("accelerated"));
+	}
+
+	@Test
+	public void when_propertyAccessorModuleIsDisabled_expect_serviceLoaderModuleStillRegistered() {
+		DefaultAlfrescoMvcServletContextConfiguration configuration = new DefaultAlfrescoMvcServletContextConfiguration(
+				null, Mockito.mock(NamespaceService.class));
+		Assertions.assertTrue(
+				configuration.objectMapper().getRegisteredModuleIds().contains(BlackbirdModule.class.getName()));
+	}
+
+	@Test
+	public void when_propertyAccessorModuleIsDiscovered_expect_noOtherModuleCreated() {
+		DefaultAlfrescoMvcServletContextConfiguration configuration = new DefaultAlfrescoMvcServletContextConfiguration(
+				null, Mockito.mock(NamespaceService.class)) {
+			@Override
+			protected boolean propertyAccessorModuleEnabled() {
+				return true;
+			}
+
+			@Override
+			protected Module createPropertyAccessorModule() {
+				throw new AssertionError("the module must not be created");
+			}
+		};
+		Assertions.assertTrue(configuration.isPropertyAccessorModuleDiscovered());
+		Assertions.assertTrue(
+				configuration.objectMapper().getRegisteredModuleIds().contains(BlackbirdModule.class.getName()));
+	}
+
+	@Test
+	public void when_propertyAccessorModuleIsEnabled_expect_moduleRegistered() throws Exception {
+		DefaultAlfrescoMvcServletContextConfiguration configuration = new DefaultAlfrescoMvcServletContextConfiguration(
+				null, Mockito.mock(NamespaceService.class)) {
+			@Override
+			protected boolean propertyAccessorModuleEnabled() {
+				return true;
+			}
+
+			@Override
+			protected boolean isPropertyAccessorModuleDiscovered() {
+				return false;
+			}
+
+			@Override
+			protected Module createPropertyAccessorModule() {
+				return new SimpleModule("accelerated");
+			}
+		};
+		ObjectMapper objectMapper = configuration.objectMapper();
+		Assertions.assertTrue(objectMapper.getRegisteredModuleIds().contains("accelerated"));
+		Assertions.assertEquals("{\"name\":\"a\"}", objectMapper.writeValueAsString(new Dto("a")));
+	}
+
+	@Test
+	public void when_propertyAccessorModuleIsEnabled_expect_blackbirdRegistered() throws Exception {
+		DefaultAlfrescoMvcServletContextConfiguration configuration = new DefaultAlfrescoMvcServletContextConfiguration(
+				null, Mockito.mock(NamespaceService.class)) {
+			@Override
+			protected boolean propertyAccessorModuleEnabled() {
+				return true;
+			}
+		};
+		ObjectMapper objectMapper = configuration.objectMapper();
+		Assertions.assertTrue(objectMapper.getRegisteredModuleIds().contains(BlackbirdModule.class.getName()));
+		Assertions.assertEquals("{\"name\":\"a\"}", objectMapper.writeValueAsString(new Dto("a")));
+	}
+
+	public static class Dto {
+		private final String name;
+
+		public Dto(final String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.jackson;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+public class Jackson2DateTimeFormatTest {
+
+	private static final long[] EDGE_MILLIS = { 0L, -1L, 1L, 999L, -12219292800000L, -12219292800001L,
+			253402300799999L, 253402300800000L, -62135596800000L, Long.MAX_VALUE / 2, Long.MIN_VALUE / 2 };
+
+	@Test
+	public void when_dateIsSerialized_expect_sameOutputAsSimpleDateFormat() throws Exception {
+		ObjectMapper simpleDateFormatMapper = new ObjectMapper().setDateFormat(dateFormat());
+		ObjectMapper mapper = objectMapper();
+
+		Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			assertSameOutput(simpleDateFormatMapper, mapper, random.nextLong() % 400000000000000L);
+		}
+		for (long millis : EDGE_MILLIS) {
+			assertSameOutput(simpleDateFormatMapper, mapper, millis);
+		}
+	}
+
+	@Test
+	public void when_dateIsDeserialized_expect_sameDateAsSimpleDateFormat() throws Exception {
+		ObjectMapper simpleDateFormatMapper = new ObjectMapper().setDateFormat(dateFormat());
+		ObjectMapper mapper = objectMapper();
+
+		for (String value : new String[] { "2020-02-29T10:11:12.345+0000", "2020-02-29T10:11:12.345+0130",
+				"2020-02-30T10:11:12.345+0000", "2020-01-01T24:00:00.000+0000", "2020-01-01T10:11:12.345Z",
+				"1500-01-01T00:00:00.000+0000", "2020-01-01T10:11:12.345+0000 trailing", "0" }) {
+			String json = "\"" + value + "\"";
+			Assertions.assertEquals(read(simpleDateFormatMapper, json, Date.class), read(mapper, json, Date.class),
+					value);
+			Assertions.assertEquals(read(simpleDateFormatMapper, json, Calendar.class),
+					read(mapper, json, Calendar.class), value);
+		}
+	}
+
+	@Test
+	public void when_mapperOrWriterFormatIsChanged_expect_effectiveFormatUsed() throws Exception {
+		TimeZone paris = TimeZone.getTimeZone("Europe/Paris");
+		DateFormat dayFormat = new SimpleDateFormat("yyyy-MM-dd");
+		Date date = new Date(1000000000000L);
+
+		ObjectMapper simpleDateFormatMapper = new ObjectMapper().setDateFormat(dateFormat());
+		Assertions.assertEquals(simpleDateFormatMapper.writer().with(paris).writeValueAsString(date),
+				objectMapper().writer().with(paris).writeValueAsString(date));
+		Assertions.assertEquals(simpleDateFormatMapper.setTimeZone(paris).writeValueAsString(date),
+				objectMapper().setTimeZone(paris).writeValueAsString(date));
+		Assertions.assertEquals(new ObjectMapper().writer(dayFormat).writeValueAsString(date),
+				objectMapper().writer(dayFormat).writeValueAsString(date));
+
+		String json = "\"2001-09-09T03:46:40.000+0200\"";
+		Assertions.assertEquals(read(new ObjectMapper().setDateFormat(dayFormat), json, Date.class),
+				read(objectMapper().setDateFormat(dayFormat), json, Date.class));
+	}
+
+	@Test
+	public void when_dateFormatIsChanged_expect_notEquivalent() {
+		Assertions.assertTrue(Jackson2DateTimeFormat.isEquivalent(dateFormat()));
+
+		DateFormat otherTimeZone = dateFormat();
+		otherTimeZone.setTimeZone(TimeZone.getTimeZone("Europe/Paris"));
+		Assertions.assertFalse(Jackson2DateTimeFormat.isEquivalent(otherTimeZone));
+		Assertions.assertFalse(Jackson2DateTimeFormat.isEquivalent(new SimpleDateFormat("yyyy-MM-dd")));
+	}
+
+	private void assertSameOutput(final ObjectMapper expectedMapper, final ObjectMapper mapper, final long millis)
+			throws Exception {
+		Date date = new Date(millis);
+		Assertions.assertEquals(expectedMapper.writeValueAsString(date), mapper.writeValueAsString(date));
+
+		Calendar calendar = new GregorianCalendar();
+		calendar.setTimeInMillis(millis);
+		Assertions.assertEquals(expectedMapper.writeValueAsString(calendar), mapper.writeValueAsString(calendar));
+	}
+
+	/**
+	 * @return the time in millis or the exception class if the value could not be
+	 *         read
+	 */
+	private Object read(final ObjectMapper mapper, final String json, final Class<?> type) {
+		try {
+			Object value = mapper.readValue(json, type);
+			return value instanceof Calendar ? ((Calendar) value).getTimeInMillis() : ((Date) value).getTime();
+		} catch (Exception e) {
+			return e.getClass();
+		}
+	}
+
+	private ObjectMapper objectMapper() {
+		SimpleModule module = new SimpleModule();
+		module.addSerializer(new Jackson2DateSerializer());
+		module.addSerializer(new Jackson2CalendarSerializer());
+		module.addDeserializer(Date.class, new Jackson2DateDeserializer());
+		module.addDeserializer(Calendar.class, new Jackson2CalendarDeserializer());
+		return new ObjectMapper().setDateFormat(dateFormat()).registerModule(module)
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+	}
+
+	private DateFormat dateFormat() {
+		DateFormat dateFormat = new SimpleDateFormat(Jackson2DateTimeFormat.PATTERN);
+		dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+		return dateFormat;
+	}
+}
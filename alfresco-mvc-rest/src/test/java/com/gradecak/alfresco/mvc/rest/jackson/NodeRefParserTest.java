@@ -0,0 +1,79 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.jackson;
+
+import org.alfresco.service.cmr.repository.NodeRef;
+import org.alfresco.service.cmr.repository.StoreRef;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.gradecak.alfresco.mvc.rest.jackson.Jackson2NodeRefSerializer.Format;
+
+public class NodeRefParserTest {
+
+	private static final String[] VALUES = { "c0ffee00-0000-4000-8000-000000000001",
+			"workspace://SpacesStore/c0ffee00-0000-4000-8000-000000000001", "archive://SpacesStore/abc",
+			"workspace://version2Store/abc", "user://alfrescoUserStore/abc", "my://store/abc", "my://a/b/c",
+			"my://a://b/c", "://a/b", "a://b/c/", "a:///c", "a://b/", "a://b", "a:/b/c", "a://b/\nc", "/", "a" };
+
+	@Test
+	public void when_valueIsParsed_expect_sameNodeRefAsTheRegexpImplementation() {
+		for (String value : VALUES) {
+			NodeRef expected = NodeRef.isNodeRef(value) ? new NodeRef(value)
+					: new NodeRef(StoreRef.STORE_REF_WORKSPACE_SPACESSTORE, value);
+			Assertions.assertEquals(expected, NodeRefParser.parse(value), value);
+		}
+	}
+
+	@Test
+	public void when_knownStoreIsParsed_expect_sharedStoreRef() {
+		Assertions.assertSame(StoreRef.STORE_REF_WORKSPACE_SPACESSTORE,
+				NodeRefParser.parse("workspace://SpacesStore/abc").getStoreRef());
+		Assertions.assertSame(StoreRef.STORE_REF_ARCHIVE_SPACESSTORE,
+				NodeRefParser.parse("archive://SpacesStore/abc").getStoreRef());
+		Assertions.assertSame(NodeRefParser.parse("workspace://version2Store/abc").getStoreRef(),
+				NodeRefParser.parse("workspace://version2Store/def").getStoreRef());
+	}
+
+	@Test
+	public void when_nodeRefIsSerialized_expect_configuredFormat() throws Exception {
+		NodeRef spacesStore = new NodeRef(StoreRef.STORE_REF_WORKSPACE_SPACESSTORE, "abc");
+		NodeRef archive = new NodeRef(StoreRef.STORE_REF_ARCHIVE_SPACESSTORE, "abc");
+
+		ObjectMapper id = objectMapper(Format.ID);
+		Assertions.assertEquals("[\"abc\",\"abc\"]", id.writeValueAsString(new NodeRef[] { spacesStore, archive }));
+
+		ObjectMapper full = objectMapper(Format.FULL);
+		Assertions.assertEquals("[\"workspace://SpacesStore/abc\",\"archive://SpacesStore/abc\"]",
+				full.writeValueAsString(new NodeRef[] { spacesStore, archive }));
+
+		ObjectMapper lossless = objectMapper(Format.ID_IF_SPACES_STORE);
+		String json = lossless.writeValueAsString(new NodeRef[] { spacesStore, archive });
+		Assertions.assertEquals("[\"abc\",\"archive://SpacesStore/abc\"]", json);
+		Assertions.assertArrayEquals(new NodeRef[] { spacesStore, archive },
+				lossless.readValue(json, NodeRef[].class));
+	}
+
+	private ObjectMapper objectMapper(final Format format) {
+		SimpleModule module = new SimpleModule();
+		module.addSerializer(new Jackson2NodeRefSerializer(format));
+		module.addDeserializer(NodeRef.class, new Jackson2NodeRefDeserializer());
+		return new ObjectMapper().registerModule(module);
+	}
+}
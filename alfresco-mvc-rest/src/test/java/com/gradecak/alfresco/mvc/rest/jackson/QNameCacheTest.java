@@ -0,0 +1,99 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.rest.jackson;
+
+import org.alfresco.model.ContentModel;
+import org.alfresco.repo.dictionary.DictionaryDAO;
+import org.alfresco.repo.dictionary.DictionaryListener;
+import org.alfresco.service.namespace.NamespaceService;
+import org.alfresco.service.namespace.QName;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class QNameCacheTest {
+
+	@Test
+	public void when_qnameIsSerializedTwice_expect_sameSerializedString() {
+		QNameCache cache = new QNameCache(Mockito.mock(NamespaceService.class));
+
+		Assertions.assertEquals(ContentModel.PROP_NAME.toString(),
+				cache.getSerializedString(ContentModel.PROP_NAME).getValue());
+		Assertions.assertSame(cache.getSerializedString(ContentModel.PROP_NAME),
+				cache.getSerializedString(ContentModel.PROP_NAME));
+	}
+
+	@Test
+	public void when_prefixedStringIsResolvedTwice_expect_namespaceServiceCalledOnce() {
+		NamespaceService namespaceService = Mockito.mock(NamespaceService.class);
+		Mockito.when(namespaceService.getNamespaceURI("cm")).thenReturn(NamespaceService.CONTENT_MODEL_1_0_URI);
+		QNameCache cache = new QNameCache(namespaceService);
+
+		Assertions.assertEquals(ContentModel.PROP_NAME, cache.resolveToQName("cm:name"));
+		Assertions.assertEquals(ContentModel.PROP_NAME, cache.resolveToQName("cm:name"));
+		Assertions.assertEquals(ContentModel.PROP_NAME, cache.resolveToQName("name"));
+		Mockito.verify(namespaceService, Mockito.times(1)).getNamespaceURI("cm");
+	}
+
+	@Test
+	public void when_dictionaryIsReloaded_expect_namespacesResolvedAgain() {
+		NamespaceService namespaceService = Mockito.mock(NamespaceService.class);
+		Mockito.when(namespaceService.getNamespaceURI("my")).thenReturn("http://my/1.0");
+		QNameCache cache = new QNameCache(namespaceService);
+		Assertions.assertEquals(QName.createQName("http://my/1.0", "prop"), cache.resolveToQName("my:prop"));
+
+		Mockito.when(namespaceService.getNamespaceURI("my")).thenReturn("http://my/2.0");
+		Assertions.assertEquals(QName.createQName("http://my/1.0", "prop"), cache.resolveToQName("my:prop"));
+
+		cache.afterDictionaryInit();
+		Assertions.assertEquals(QName.createQName("http://my/2.0", "prop"), cache.resolveToQName("my:prop"));
+	}
+
+	@Test
+	public void when_maxSizeIsReached_expect_qnamesStillResolved() {
+		QNameCache cache = new QNameCache(Mockito.mock(NamespaceService.class), 2);
+		for (String localName : new String[] { "a", "b", "c", "a" }) {
+			QName qname = QName.createQName(NamespaceService.CONTENT_MODEL_1_0_URI, localName);
+			Assertions.assertEquals(qname, cache.resolveToQName(localName));
+			Assertions.assertEquals(qname.toString(), cache.getSerializedString(qname).getValue());
+		}
+	}
+
+	@Test
+	public void when_cachesAreRegistered_expect_singleDictionaryListener() {
+		NamespaceService namespaceService = Mockito.mock(NamespaceService.class);
+		Mockito.when(namespaceService.getNamespaceURI("my")).thenReturn("http://my/1.0");
+		DictionaryDAO dictionaryDAO = Mockito.mock(DictionaryDAO.class);
+		QNameCache first = new QNameCache(namespaceService);
+		QNameCache second = new QNameCache(namespaceService);
+
+		QNameCacheRegistry.register(dictionaryDAO, first);
+		QNameCacheRegistry.register(dictionaryDAO, second);
+		ArgumentCaptor<DictionaryListener> listener = ArgumentCaptor.forClass(DictionaryListener.class);
+		Mockito.verify(dictionaryDAO, Mockito.times(1)).registerListener(listener.capture());
+
+		first.resolveToQName("my:prop");
+		second.resolveToQName("my:prop");
+		QNameCacheRegistry.unregister(dictionaryDAO, first);
+		Mockito.when(namespaceService.getNamespaceURI("my")).thenReturn("http://my/2.0");
+		listener.getValue().afterDictionaryInit();
+
+		Assertions.assertEquals(QName.createQName("http://my/1.0", "prop"), first.resolveToQName("my:prop"));
+		Assertions.assertEquals(QName.createQName("http://my/2.0", "prop"), second.resolveToQName("my:prop"));
+	}
+}
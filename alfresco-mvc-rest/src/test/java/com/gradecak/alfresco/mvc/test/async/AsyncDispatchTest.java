@@ -0,0 +1,106 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.test.async;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import com.google.common.collect.ImmutableMap;
+import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript;
+import com.gradecak.alfresco.mvc.webscript.mock.MockWebscript;
+import com.gradecak.alfresco.mvc.webscript.mock.MockWebscriptBuilder;
+
+@ExtendWith(SpringExtension.class)
+@ContextHierarchy({ @ContextConfiguration(locations = { "/mock-alfresco-context.xml", "/test-restjsonmodule.xml" }),
+		@ContextConfiguration(classes = AlfrescoMvcAsyncModuleConfiguration.class) })
+@WebAppConfiguration
+@TestInstance(Lifecycle.PER_CLASS)
+public class AsyncDispatchTest {
+
+	@Autowired
+	private DispatcherWebscript dispatcherWebscript;
+
+	MockWebscript mockWebscript;
+
+	@BeforeAll
+	public void beforeAll() throws Exception {
+		mockWebscript = MockWebscriptBuilder.singleWebscript(dispatcherWebscript);
+	}
+
+	@BeforeEach
+	public void before() throws Exception {
+		mockWebscript.newRequest();
+	}
+
+	@Test
+	public void when_callableIsReturned_expect_completedResponse() throws Exception {
+		MockHttpServletResponse res = mockWebscript.withParameters(ImmutableMap.of("id", "testId"))
+				.withControllerMapping("test/async/callable").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		Assertions.assertEquals("testId", res.getContentAsString());
+	}
+
+	@Test
+	public void when_asyncSupported_expect_asyncTaskExecutorRunsCallable() throws Exception {
+		Assertions.assertTrue(dispatcherWebscript.getDispatcherServlet().getWebApplicationContext()
+				.containsBean(DispatcherWebscript.ASYNC_TASK_EXECUTOR_BEAN_NAME));
+
+		MockHttpServletResponse res = mockWebscript.withControllerMapping("test/async/callableThread").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		Assertions.assertTrue(res.getContentAsString().startsWith("alfresco-mvc-async-"));
+	}
+
+	@Test
+	public void when_callableFails_expect_exceptionHandlerCalled() throws Exception {
+		MockHttpServletResponse res = mockWebscript.withControllerMapping("test/async/callableFailure").execute();
+		Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), res.getStatus());
+		Assertions.assertEquals("internal server error", res.getHeader("error"));
+	}
+
+	@Test
+	public void when_deferredResultIsReturned_expect_completedResponse() throws Exception {
+		MockHttpServletResponse res = mockWebscript.withParameters(ImmutableMap.of("id", "testId"))
+				.withControllerMapping("test/async/deferred").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		Assertions.assertEquals("testId", res.getContentAsString());
+	}
+
+	@Test
+	public void when_deferredResultTimesOut_expect_serviceUnavailable() throws Exception {
+		MockHttpServletResponse res = mockWebscript.withControllerMapping("test/async/deferredTimeout").execute();
+		Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), res.getStatus());
+	}
+
+	@Test
+	public void when_completableFutureIsReturned_expect_completedResponse() throws Exception {
+		MockHttpServletResponse res = mockWebscript.withParameters(ImmutableMap.of("id", "testId"))
+				.withControllerMapping("test/async/future").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		Assertions.assertEquals("testId", res.getContentAsString());
+	}
+}
@@ -70,4 +70,10 @@ public class ServletContextTest {
 
 		Assertions.assertEquals(dispatcherWebscript.getDispatcherServlet(), dispatcherServletSame);
 	}
+
+	@Test
+	public void when_asyncNotSupported_expect_noAsyncTaskExecutor() {
+		Assertions.assertFalse(dispatcherWebscript.getDispatcherServlet().getWebApplicationContext()
+				.containsBean(DispatcherWebscript.ASYNC_TASK_EXECUTOR_BEAN_NAME));
+	}
 }
@@ -0,0 +1,97 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.gradecak.alfresco.mvc.test.handlercache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import com.google.common.collect.ImmutableMap;
+import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript;
+import com.gradecak.alfresco.mvc.webscript.mock.MockWebscript;
+import com.gradecak.alfresco.mvc.webscript.mock.MockWebscriptBuilder;
+
+@ExtendWith(SpringExtension.class)
+@ContextHierarchy({ @ContextConfiguration(locations = { "/mock-alfresco-context.xml", "/test-restjsonmodule.xml" }),
+		@ContextConfiguration(classes = AlfrescoMvcHandlerCacheModuleConfiguration.class) })
+@WebAppConfiguration
+@TestInstance(Lifecycle.PER_CLASS)
+public class HandlerCacheTest {
+
+	@Autowired
+	private DispatcherWebscript dispatcherWebscript;
+
+	MockWebscript mockWebscript;
+
+	@BeforeAll
+	public void beforeAll() throws Exception {
+		mockWebscript = MockWebscriptBuilder.singleWebscript(dispatcherWebscript);
+	}
+
+	@BeforeEach
+	public void before() throws Exception {
+		mockWebscript.newRequest();
+	}
+
+	@Test
+	public void when_sameRequestIsRepeated_expect_pathVariablesResolvedEachTime() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletResponse res = mockWebscript.newRequest().withControllerMapping("test/regexp/abc.de")
+					.execute();
+			Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+			Assertions.assertEquals("abc.de", res.getContentAsString());
+		}
+
+		MockHttpServletResponse res = mockWebscript.newRequest().withControllerMapping("test/regexp/fgh").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		Assertions.assertEquals("fgh", res.getContentAsString());
+	}
+
+	@Test
+	public void when_cachedHandlerIsCalledWithAnotherMethod_expect_failMethodNotAllowed() throws Exception {
+		MockHttpServletResponse res = mockWebscript.withParameters(ImmutableMap.of("id", "testId"))
+				.withControllerMapping("test/get").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+
+		res = mockWebscript.newRequest().withPostRequest().withParameters(ImmutableMap.of("id", "testId"))
+				.withControllerMapping("test/get").execute();
+		Assertions.assertEquals(HttpStatus.METHOD_NOT_ALLOWED.value(), res.getStatus());
+	}
+
+	@Test
+	public void when_cacheIsFull_expect_handlersStillResolved() throws Exception {
+		for (String id : new String[] { "a", "b", "c", "a" }) {
+			MockHttpServletResponse res = mockWebscript.newRequest().withParameters(ImmutableMap.of("id", id))
+					.withControllerMapping("test/get").execute();
+			Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+			Assertions.assertEquals(id, res.getContentAsString());
+
+			res = mockWebscript.newRequest().withControllerMapping("test/regexp/" + id).execute();
+			Assertions.assertEquals(id, res.getContentAsString());
+		}
+	}
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.test.parallelinit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import com.google.common.collect.ImmutableMap;
+import com.gradecak.alfresco.mvc.config.AlfrescoMvcRestServletContext;
+import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript;
+import com.gradecak.alfresco.mvc.webscript.DispatcherWebscriptInitializer;
+import com.gradecak.alfresco.mvc.webscript.mock.MockWebscript;
+import com.gradecak.alfresco.mvc.webscript.mock.MockWebscriptBuilder;
+
+@ExtendWith(SpringExtension.class)
+@ContextHierarchy({ @ContextConfiguration(locations = { "/mock-alfresco-context.xml", "/test-restjsonmodule.xml" }),
+		@ContextConfiguration(classes = AlfrescoMvcParallelInitializationModuleConfiguration.class) })
+@WebAppConfiguration
+@TestInstance(Lifecycle.PER_CLASS)
+public class ParallelInitializationTest {
+
+	@Autowired
+	@Qualifier("alfresco-mvc.first")
+	private DispatcherWebscript first;
+
+	@Autowired
+	@Qualifier("alfresco-mvc.second")
+	private DispatcherWebscript second;
+
+	@Autowired
+	private DispatcherWebscriptInitializer initializer;
+
+	@Test
+	public void when_parallelInitialization_expect_allDispatchersStarted() throws Exception {
+		Map<String, ?> startupTimes = initializer.getStartupTimes();
+		Assertions.assertEquals(2, startupTimes.size());
+		Assertions.assertNotNull(startupTimes.get("alfresco-mvc.first"));
+		Assertions.assertNotNull(startupTimes.get("alfresco-mvc.second"));
+
+		for (DispatcherWebscript dispatcherWebscript : Arrays.asList(first, second)) {
+			Assertions.assertFalse(dispatcherWebscript.isInitializeOnRefresh());
+			Assertions.assertNotNull(dispatcherWebscript.getDispatcherServlet());
+			Assertions.assertNotNull(dispatcherWebscript.getStartupTime());
+
+			MockWebscript mockWebscript = MockWebscriptBuilder.singleWebscript(dispatcherWebscript);
+			MockHttpServletResponse res = mockWebscript.withParameters(ImmutableMap.of("id", "testId"))
+					.withControllerMapping("test/get").execute();
+			Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		}
+	}
+
+	@Test
+	public void when_dispatcherFails_expect_allFailuresReported() {
+		DispatcherWebscript failing = Mockito.mock(DispatcherWebscript.class);
+		Mockito.doThrow(new IllegalStateException("first")).when(failing).initDispatcherServlet();
+		DispatcherWebscript failingToo = Mockito.mock(DispatcherWebscript.class);
+		Mockito.doThrow(new IllegalStateException("second")).when(failingToo).initDispatcherServlet();
+
+		DispatcherWebscriptInitializer failingInitializer = new DispatcherWebscriptInitializer();
+		failingInitializer.setThreads(1);
+		IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+				() -> failingInitializer.initialize(Arrays.asList(failing, failingToo)));
+
+		Assertions.assertEquals("first", exception.getCause().getMessage());
+		Assertions.assertTrue(failingInitializer.getStartupTimes().isEmpty());
+	}
+
+	@Test
+	public void when_dispatcherFails_expect_startedDispatchersDestroyed() {
+		// fails once the other dispatchers are being initialized
+		CountDownLatch started = new CountDownLatch(2);
+		DispatcherWebscript failing = Mockito.mock(DispatcherWebscript.class);
+		Mockito.doAnswer(invocation -> {
+			started.await(1, TimeUnit.MINUTES);
+			throw new IllegalStateException("failing");
+		}).when(failing).initDispatcherServlet();
+
+		List<DispatcherWebscript> dispatcherWebscripts = new ArrayList<>(Arrays.asList(failing));
+		List<AtomicReference<WebApplicationContext>> contexts = new ArrayList<>();
+		for (String name : Arrays.asList("alfresco-mvc.third", "alfresco-mvc.fourth")) {
+			AtomicReference<WebApplicationContext> context = new AtomicReference<>();
+			DispatcherWebscript dispatcherWebscript = new DispatcherWebscript(name) {
+				@Override
+				public void initDispatcherServlet() {
+					started.countDown();
+					super.initDispatcherServlet();
+					context.set(getDispatcherServlet().getWebApplicationContext());
+				}
+			};
+			dispatcherWebscript.setContextClass(AnnotationConfigWebApplicationContext.class);
+			dispatcherWebscript.setContextConfigLocation(AlfrescoMvcRestServletContext.class.getName());
+			dispatcherWebscript.setApplicationContext(first.getApplicationContext());
+			dispatcherWebscript.setServletContext(first.getServletContext());
+			dispatcherWebscripts.add(dispatcherWebscript);
+			contexts.add(context);
+		}
+
+		DispatcherWebscriptInitializer failingInitializer = new DispatcherWebscriptInitializer();
+		failingInitializer.setThreads(3);
+		IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+				() -> failingInitializer.initialize(dispatcherWebscripts));
+
+		Assertions.assertEquals("failing", exception.getCause().getMessage());
+		for (int i = 1; i < dispatcherWebscripts.size(); i++) {
+			Assertions.assertNull(dispatcherWebscripts.get(i).getDispatcherServlet());
+			WebApplicationContext context = contexts.get(i - 1).get();
+			Assertions.assertNotNull(context);
+			Assertions.assertFalse(((ConfigurableApplicationContext) context).isActive());
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.test.sharedconverters;
+
+import java.util.List;
+
+import org.alfresco.repo.dictionary.DictionaryDAO;
+import org.alfresco.repo.dictionary.DictionaryListener;
+import org.alfresco.service.namespace.NamespaceService;
+import org.alfresco.service.namespace.QName;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.gradecak.alfresco.mvc.rest.config.SharedMessageConverters;
+import com.gradecak.alfresco.mvc.rest.jackson.QNameCache;
+import com.gradecak.alfresco.mvc.webscript.DispatcherWebscript;
+import com.gradecak.alfresco.mvc.webscript.mock.MockWebscriptBuilder;
+
+@ExtendWith(SpringExtension.class)
+@ContextHierarchy({ @ContextConfiguration(locations = { "/mock-alfresco-context.xml", "/test-restjsonmodule.xml" }),
+		@ContextConfiguration(classes = AlfrescoMvcSharedConvertersModuleConfiguration.class) })
+@WebAppConfiguration
+@TestInstance(Lifecycle.PER_CLASS)
+public class SharedMessageConvertersTest {
+
+	@Autowired
+	@Qualifier("alfresco-mvc.first")
+	private DispatcherWebscript first;
+
+	@Autowired
+	@Qualifier("alfresco-mvc.second")
+	private DispatcherWebscript second;
+
+	@Test
+	public void when_sharedMessageConverters_expect_sameObjectMapperAndConverters() throws Exception {
+		WebApplicationContext firstContext = first.getDispatcherServlet().getWebApplicationContext();
+		WebApplicationContext secondContext = second.getDispatcherServlet().getWebApplicationContext();
+		Assertions.assertNotSame(firstContext, secondContext);
+		Assertions.assertSame(firstContext.getBean(ObjectMapper.class), secondContext.getBean(ObjectMapper.class));
+
+		List<HttpMessageConverter<?>> firstConverters = firstContext.getBean(RequestMappingHandlerAdapter.class)
+				.getMessageConverters();
+		List<HttpMessageConverter<?>> secondConverters = secondContext.getBean(RequestMappingHandlerAdapter.class)
+				.getMessageConverters();
+		Assertions.assertEquals(firstConverters.size(), secondConverters.size());
+		for (int i = 0; i < firstConverters.size(); i++) {
+			Assertions.assertSame(firstConverters.get(i), secondConverters.get(i));
+		}
+
+		for (DispatcherWebscript dispatcherWebscript : new DispatcherWebscript[] { first, second }) {
+			MockHttpServletResponse res = MockWebscriptBuilder.singleWebscript(dispatcherWebscript)
+					.withParameters(ImmutableMap.of("id", "testId")).withControllerMapping("test/get").execute();
+			Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		}
+	}
+
+	@Test
+	public void when_dictionaryIsReloaded_expect_sharedQNameCacheClearedUntilDestroyed() {
+		NamespaceService namespaceService = Mockito.mock(NamespaceService.class);
+		Mockito.when(namespaceService.getNamespaceURI("my")).thenReturn("http://my/1.0");
+		DictionaryDAO dictionaryDAO = Mockito.mock(DictionaryDAO.class);
+		ArgumentCaptor<DictionaryListener> listener = ArgumentCaptor.forClass(DictionaryListener.class);
+
+		SharedMessageConverters sharedMessageConverters = new SharedMessageConverters(namespaceService,
+				dictionaryDAO);
+		Mockito.verify(dictionaryDAO).registerListener(listener.capture());
+		QNameCache qnameCache = sharedMessageConverters.getQNameCache();
+		Assertions.assertEquals(QName.createQName("http://my/1.0", "prop"), qnameCache.resolveToQName("my:prop"));
+
+		Mockito.when(namespaceService.getNamespaceURI("my")).thenReturn("http://my/2.0");
+		listener.getValue().afterDictionaryInit();
+		Assertions.assertEquals(QName.createQName("http://my/2.0", "prop"), qnameCache.resolveToQName("my:prop"));
+
+		sharedMessageConverters.destroy();
+		Mockito.when(namespaceService.getNamespaceURI("my")).thenReturn("http://my/3.0");
+		listener.getValue().afterDictionaryInit();
+		Assertions.assertEquals(QName.createQName("http://my/2.0", "prop"), qnameCache.resolveToQName("my:prop"));
+	}
+}
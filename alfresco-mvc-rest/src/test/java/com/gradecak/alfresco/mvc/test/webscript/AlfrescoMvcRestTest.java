@@ -17,15 +17,24 @@
 package com.gradecak.alfresco.mvc.test.webscript;
 
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
 import jakarta.servlet.http.Cookie;
 
+import org.alfresco.model.ContentModel;
+import org.alfresco.rest.framework.webscripts.ResourceWebScriptHelper;
+import org.alfresco.service.ServiceRegistry;
+import org.alfresco.service.cmr.repository.NodeRef;
+import org.alfresco.service.cmr.repository.NodeService;
 import org.alfresco.service.namespace.NamespaceService;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Assertions;
@@ -65,6 +74,12 @@ public class AlfrescoMvcRestTest {
 	@Autowired
 	private NamespaceService namespaceService;
 
+	@Autowired
+	private ServiceRegistry serviceRegistry;
+
+	@Autowired
+	private ResourceWebScriptHelper webscriptHelper;
+
 	MockWebscript mockWebscript;
 
 	@BeforeAll
@@ -247,6 +262,47 @@ public class AlfrescoMvcRestTest {
 		Assertions.assertEquals("\"abc\"", contentAsString);
 	}
 
+	@Test
+	public void when_nodeETagMatches_expect_notModified() throws Exception {
+		NodeService nodeService = mock(NodeService.class);
+		when(serviceRegistry.getNodeService()).thenReturn(nodeService);
+		when(nodeService.getProperties(any(NodeRef.class)))
+				.thenReturn(Map.of(ContentModel.PROP_MODIFIED, new Date(1000L)));
+
+		MockHttpServletResponse res = mockWebscript.withControllerMapping("test/etag/abc").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		Assertions.assertEquals("\"3e8\"", res.getHeader("ETag"));
+		Assertions.assertEquals("\"abc\"", res.getContentAsString());
+
+		res = mockWebscript.newRequest().withHeaders(Map.of("If-None-Match", "\"3e8\""))
+				.withControllerMapping("test/etag/abc").execute();
+		Assertions.assertEquals(HttpStatus.NOT_MODIFIED.value(), res.getStatus());
+		Assertions.assertEquals("", res.getContentAsString());
+
+		when(nodeService.getProperties(any(NodeRef.class)))
+				.thenReturn(Map.of(ContentModel.PROP_MODIFIED, new Date(2000L)));
+		res = mockWebscript.newRequest().withHeaders(Map.of("If-None-Match", "\"3e8\""))
+				.withControllerMapping("test/etag/abc").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		Assertions.assertEquals("\"7d0\"", res.getHeader("ETag"));
+	}
+
+	@Test
+	public void when_nodeHasNoModifiedDate_expect_noETagAndNoValidation() throws Exception {
+		NodeService nodeService = mock(NodeService.class);
+		when(serviceRegistry.getNodeService()).thenReturn(nodeService);
+		when(nodeService.getProperties(any(NodeRef.class))).thenReturn(Map.of());
+
+		MockHttpServletResponse res = mockWebscript.withControllerMapping("test/etag/abc").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		Assertions.assertNull(res.getHeader("ETag"));
+
+		res = mockWebscript.newRequest().withHeaders(Map.of("If-None-Match", "\"ffffffffffffffff\""))
+				.withControllerMapping("test/etag/abc").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		Assertions.assertEquals("\"abc\"", res.getContentAsString());
+	}
+
 	@Test
 	public void when_alfrescoMvcSerializationIsUsed_expect_okAndQNameFullySerialized() throws Exception {
 		MockHttpServletResponse res = mockWebscript.withControllerMapping("test/qname").execute();
@@ -303,6 +359,85 @@ public class AlfrescoMvcRestTest {
 		Assertions.assertEquals("", contentAsString);
 	}
 
+	@Test
+	public void when_composedAlfrescoResponseIsUsed_expect_responseProcessed() throws Exception {
+		when(webscriptHelper.processAdditionsToTheResponse(any(), any(), any(), any(), any()))
+				.thenReturn(Map.of("processed", true));
+		try {
+			for (int i = 0; i < 2; i++) {
+				MockHttpServletResponse res = mockWebscript.newRequest()
+						.withControllerMapping("test/composedAlfrescoResponse").execute();
+				Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+				Assertions.assertEquals("{\"processed\":true}", res.getContentAsString());
+			}
+		} finally {
+			reset(webscriptHelper);
+		}
+	}
+
+	@Test
+	public void when_paramsAreResolved_expect_sameInstanceSharedWithResponseProcessing() throws Exception {
+		when(webscriptHelper.processAdditionsToTheResponse(any(), any(), any(), any(), any()))
+				.thenAnswer(invocation -> Map.of("shared",
+						((Map<?, ?>) invocation.getArgument(4)).get("params") == invocation.getArgument(3)));
+		try {
+			MockHttpServletResponse res = mockWebscript.withControllerMapping("test/params").execute();
+			Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+			Assertions.assertEquals("{\"shared\":true}", res.getContentAsString());
+		} finally {
+			reset(webscriptHelper);
+		}
+	}
+
+	@Test
+	public void when_streamIsReturned_expect_jsonArray() throws Exception {
+		MockHttpServletResponse res = mockWebscript.withControllerMapping("test/stream").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		Assertions.assertEquals("[\"a\",\"b\"]", res.getContentAsString());
+	}
+
+	@Test
+	public void when_streamIsReturnedWithAlfrescoResponse_expect_listEnvelope() throws Exception {
+		when(webscriptHelper.processAdditionsToTheResponse(any(), any(), any(), any(), any()))
+				.thenAnswer(invocation -> invocation.getArgument(4));
+		try {
+			MockHttpServletResponse res = mockWebscript.withControllerMapping("test/streamAlfrescoResponse").execute();
+			Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+			Assertions.assertEquals(
+					"{\"list\":{\"pagination\":{\"count\":2,\"hasMoreItems\":false,\"totalItems\":2,\"skipCount\":0,\"maxItems\":100},\"entries\":[{\"entry\":\"a\"},{\"entry\":\"b\"}]}}",
+					res.getContentAsString());
+		} finally {
+			reset(webscriptHelper);
+		}
+	}
+
+	@Test
+	public void when_streamFitsInPage_expect_sameJsonAsPagedCollection() throws Exception {
+		assertStreamedAsPaged(3);
+	}
+
+	@Test
+	public void when_streamExceedsPage_expect_sameJsonAsPagedCollection() throws Exception {
+		// the default page holds 100 entries
+		assertStreamedAsPaged(101);
+	}
+
+	private void assertStreamedAsPaged(int size) throws Exception {
+		when(webscriptHelper.processAdditionsToTheResponse(any(), any(), any(), any(), any()))
+				.thenAnswer(invocation -> invocation.getArgument(4));
+		try {
+			MockHttpServletResponse paged = mockWebscript.newRequest()
+					.withControllerMapping("test/pagedAlfrescoResponse/" + size).execute();
+			MockHttpServletResponse streamed = mockWebscript.newRequest()
+					.withControllerMapping("test/streamAlfrescoResponse/" + size).execute();
+			Assertions.assertEquals(HttpStatus.OK.value(), paged.getStatus());
+			Assertions.assertEquals(HttpStatus.OK.value(), streamed.getStatus());
+			Assertions.assertEquals(paged.getContentAsString(), streamed.getContentAsString());
+		} finally {
+			reset(webscriptHelper);
+		}
+	}
+
 	@Test
 	public void when_expectedExceptionIsThrownByController_expect_handledIOException() throws Exception {
 		Assertions.assertThrows(IOException.class, () -> {
@@ -311,6 +446,20 @@ public class AlfrescoMvcRestTest {
 		});
 	}
 
+	@Test
+	public void when_mappedExceptionIsThrownByController_expect_failForbidden() throws Exception {
+		MockHttpServletResponse res = mockWebscript.withControllerMapping("test/accessDenied").execute();
+		Assertions.assertEquals(HttpStatus.FORBIDDEN.value(), res.getStatus());
+	}
+
+	@Test
+	public void when_defaultCacheControl_expect_noCacheHeader() throws Exception {
+		MockHttpServletResponse res = mockWebscript.withParameters(ImmutableMap.of("id", "testId"))
+				.withControllerMapping("test/get").execute();
+		Assertions.assertEquals(HttpStatus.OK.value(), res.getStatus());
+		Assertions.assertEquals("no-cache", res.getHeader("Cache-Control"));
+	}
+
 	@Test
 	public void when_handleIllegalArgumentException_expect_failInternalServerError() throws Exception {
 		MockHttpServletResponse res = mockWebscript.withControllerMapping("test/exceptionHandler").execute();
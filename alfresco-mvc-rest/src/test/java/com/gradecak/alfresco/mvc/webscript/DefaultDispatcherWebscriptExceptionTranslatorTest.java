@@ -0,0 +1,63 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.webscript;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DefaultDispatcherWebscriptExceptionTranslatorTest {
+
+	private final DefaultDispatcherWebscriptExceptionTranslator translator;
+
+	public DefaultDispatcherWebscriptExceptionTranslatorTest() {
+		translator = new DefaultDispatcherWebscriptExceptionTranslator(Map.of(), List.of(ClientAbortException.class));
+	}
+
+	@Test
+	public void when_failureIsClientAbortType_expect_clientAbort() {
+		Assertions.assertTrue(translator.isClientAbort(new ClientAbortException()));
+		Assertions.assertTrue(translator.isClientAbort(new RuntimeException(new SubClientAbortException())));
+	}
+
+	@Test
+	public void when_onlyMessageLooksLikeClientAbort_expect_noClientAbort() {
+		Assertions.assertFalse(translator.isClientAbort(new IOException("Broken pipe")));
+		Assertions.assertFalse(translator.isClientAbort(new IOException("Connection reset by peer")));
+		Assertions.assertFalse(translator.isClientAbort(new Lookalike.ClientAbortException()));
+	}
+
+	static class ClientAbortException extends IOException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	static class SubClientAbortException extends ClientAbortException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * same simple name as the client abort type, but not the same type
+	 */
+	static class Lookalike {
+		static class ClientAbortException extends IOException {
+			private static final long serialVersionUID = 1L;
+		}
+	}
+}
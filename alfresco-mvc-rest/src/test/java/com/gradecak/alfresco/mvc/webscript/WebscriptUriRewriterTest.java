@@ -0,0 +1,65 @@
+/**
+ * Copyright gradecak.com
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gradecak.alfresco.mvc.webscript;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class WebscriptUriRewriterTest {
+
+	private static final String SERVICE_CONTEXT_PATH = "/alfresco/service";
+
+	@Test
+	public void when_uriMatchesServiceContextPath_expect_extensionPath() {
+		Assertions.assertEquals("/test/get",
+				WebscriptUriRewriter.rewrite("/alfresco/service/mvc/test/get", SERVICE_CONTEXT_PATH, "test/get"));
+	}
+
+	@Test
+	public void when_uriContainsEncodedDollar_expect_dollarKeptEncoded() {
+		Assertions.assertEquals("/test/regexp/abc%24def", WebscriptUriRewriter
+				.rewrite("/alfresco/service/mvc/test/regexp/abc%24def", SERVICE_CONTEXT_PATH, "test/regexp/abc$def"));
+	}
+
+	@Test
+	public void when_uriContainsDecodedDollar_expect_dollarEncoded() {
+		Assertions.assertEquals("/test/regexp/abc%24def", WebscriptUriRewriter
+				.rewrite("/alfresco/service/mvc/test/regexp/abc$def", SERVICE_CONTEXT_PATH, "test/regexp/abc$def"));
+	}
+
+	@Test
+	public void when_uriContainsEncodedCharacters_expect_decodedExtensionPath() {
+		Assertions.assertEquals("/test/a b", WebscriptUriRewriter.rewrite("/alfresco/service/mvc/test/a%20b",
+				SERVICE_CONTEXT_PATH, "test/a b"));
+	}
+
+	@Test
+	public void when_uriDoesNotMatchServiceContextPath_expect_empty() {
+		Assertions.assertEquals("",
+				WebscriptUriRewriter.rewrite("/share/service/mvc/test/get", SERVICE_CONTEXT_PATH, "test/get"));
+		Assertions.assertEquals("",
+				WebscriptUriRewriter.rewrite("/alfresco/servicemvc/test/get", SERVICE_CONTEXT_PATH, "test/get"));
+	}
+
+	@Test
+	public void when_serviceContextPathContainsRegexpChars_expect_regexpPrefixMatching() {
+		Assertions.assertEquals("/test/get", WebscriptUriRewriter.rewrite("http://localhost/alfresco/service/mvc/test/get",
+				"http://localhost/alfresco/.*", "test/get"));
+		Assertions.assertEquals("", WebscriptUriRewriter.rewrite("http://localhost/share/service/mvc/test/get",
+				"http://localhost/alfresco/.*", "test/get"));
+	}
+}